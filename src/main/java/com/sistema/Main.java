@@ -2,23 +2,46 @@ package com.sistema;
 
 import io.javalin.Javalin;
 import io.javalin.http.staticfiles.Location;
+import com.sistema.config.Configuracao;
 import com.sistema.config.DatabaseConfig;
+import com.sistema.config.HashSenhas;
+import com.sistema.config.ManutencaoBanco;
+import com.sistema.controller.AdminController;
+import com.sistema.controller.ArquivosEstaticosController;
 import com.sistema.controller.AuthController;
 import com.sistema.controller.UsuarioController;
 import com.sistema.controller.EtiquetaController;
 import com.sistema.controller.StatusNotaController;
 import com.sistema.controller.NotaController;
 import com.sistema.controller.NotificacaoController;
+import com.sistema.repository.EtiquetaRepository;
+import com.sistema.repository.StatusNotaRepository;
+import com.sistema.service.AgendaPrazos;
+import com.sistema.service.AuthService;
+import com.sistema.service.CanalEventos;
+import com.sistema.service.NotaService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.javalin.json.JavalinJackson;
+import java.util.Map;
 
 public class Main {
     
     public static void main(String[] args) {
+        // Custo do BCrypt medido nesta máquina (auth.bcrypt.calibrar=true)
+        HashSenhas.calibrar();
+
         // Inicializar banco de dados
         DatabaseConfig.inicializar();
+        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseConfig::fechar));
+        carregarCacheReferencia();
+        iniciarTokens();
+        ManutencaoBanco.iniciar();
+        // Limiares de prazo cruzados também vão para o navegador (/api/eventos)
+        AgendaPrazos.adicionarOuvinte(evento -> CanalEventos.publicar("alerta", evento));
+        AgendaPrazos.iniciar();
+        iniciarCompressaoConteudo();
         
         // Criar controllers
         var authController = new AuthController();
@@ -27,6 +50,8 @@ public class Main {
         var statusController = new StatusNotaController();
         var notaController = new NotaController();
         var notificacaoController = new NotificacaoController();
+        var adminController = new AdminController();
+        var estaticosController = new ArquivosEstaticosController();
         
         // Configurar e iniciar Javalin
         var app = Javalin.create(config -> {
@@ -36,8 +61,24 @@ public class Main {
                 mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
             }));
 
+            // CSS/JS com hash no nome (gerados no build): o conteúdo nunca muda, cache imutável
+            config.staticFiles.add(arquivos -> {
+                arquivos.hostedPath = "/assets";
+                arquivos.directory = "/public/assets";
+                arquivos.location = Location.CLASSPATH;
+                arquivos.headers = Map.of("Cache-Control", ArquivosEstaticosController.CACHE_IMUTAVEL);
+            });
+
             // Servir arquivos estáticos (HTML, CSS, JS)
             config.staticFiles.add("/public", Location.CLASSPATH);
+
+            // gzip negociado pelo Accept-Encoding nas respostas acima de 1500 bytes (limite do Javalin)
+            config.http.gzipOnlyCompression(Configuracao.inteiro("http.gzip.nivel", 6));
+
+            // Corpo máximo (o padrão do Javalin, 1 MB, barraria a importação em lote muito
+            // antes de notas.importacao.maxLinhas): por padrão ~2 KB por nota do limite
+            config.http.maxRequestSize = Configuracao.longo("http.maxRequestBytes",
+                    NotaService.MAXIMO_IMPORTACAO * 2048L);
             
             // CORS
             config.bundledPlugins.enableCors(cors -> {
@@ -55,9 +96,15 @@ public class Main {
         // ROTAS
         // ====================================================================
         
+        // Arquivos estáticos com variante .gz gerada no build (antes do tratamento padrão)
+        app.before(estaticosController::servirComprimido);
+
         // Página inicial (redireciona para login)
         app.get("/", ctx -> ctx.redirect("/login.html"));
         
+        // Autenticação obrigatória em /api/* (exceto login, logout e cadastro)
+        app.before("/api/*", authController::exigirAutenticacao);
+
         // Rotas de Autenticação
         app.post("/api/auth/login", authController::login);
         app.post("/api/auth/logout", authController::logout);
@@ -86,14 +133,31 @@ public class Main {
 
         // Notas
         app.get("/api/notas", notaController::listar);
+        app.get("/api/notas/busca", notaController::buscarTexto); // antes de /{id}
+        app.get("/api/notas/exportar", notaController::exportar);
         app.get("/api/notas/{id}", notaController::buscarPorId);
         app.get("/api/notas/etiqueta/{etiquetaId}", notaController::buscarPorEtiqueta);
         app.post("/api/notas", notaController::criar);
+        app.post("/api/notas/lote", notaController::importarLote);
+        app.post("/api/notas/lote/csv", notaController::importarCsv);
+        app.put("/api/notas/lote", notaController::atualizarLote); // antes de /{id}
         app.put("/api/notas/{id}", notaController::atualizar);
+        app.delete("/api/notas/lote", notaController::deletarLote);
         app.delete("/api/notas/{id}", notaController::deletar);
 
         // Notificações
         app.get("/api/notificacoes/alertas", notificacaoController::gerarAlertas);
+        app.sse("/api/eventos", notificacaoController::eventos);
+
+        // Administração / métricas
+        app.get("/api/admin/pool", adminController::pool);
+        app.get("/api/admin/cache", adminController::cache);
+        app.get("/api/admin/senhas", adminController::senhas);
+        app.get("/api/admin/limites", adminController::limites);
+        app.get("/api/admin/manutencao", adminController::manutencao);
+        app.get("/api/admin/prazos", adminController::prazos);
+        app.get("/api/admin/eventos", adminController::eventos);
+        app.get("/api/admin/respostas", adminController::respostas);
         
         // Tratamento de erros
         app.exception(Exception.class, (e, ctx) -> {
@@ -138,4 +202,42 @@ public class Main {
             System.err.println("Erro ao obter informações de rede: " + e.getMessage());
         }
     }
+
+    // Etiquetas e status em memória desde o início (se falhar, carregam no primeiro acesso)
+    private static void carregarCacheReferencia() {
+        try {
+            EtiquetaRepository.carregarCache();
+            StatusNotaRepository.carregarCache();
+        } catch (Exception e) {
+            System.err.println("⚠️  Falha ao carregar cache de etiquetas/status: " + e.getMessage());
+        }
+    }
+
+    // Épocas de revogação dos tokens assinados (sem elas não há como validar)
+    private static void iniciarTokens() {
+        try {
+            AuthService.iniciarTokens();
+        } catch (Exception e) {
+            throw new IllegalStateException("Falha ao carregar épocas de tokens: " + e.getMessage(), e);
+        }
+    }
+
+    // Notas gravadas antes da compressão de conteúdo: migrar em segundo plano
+    private static void iniciarCompressaoConteudo() {
+        if (!Configuracao.booleano("notas.compressao.migrar", true)) return;
+        var thread = new Thread(() -> {
+            try {
+                int comprimidas = new NotaService().comprimirConteudoExistente();
+                if (comprimidas > 0) {
+                    System.out.println("✅ Conteúdo de " + comprimidas + " nota(s) comprimido");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("⚠️  Falha ao comprimir conteúdo das notas: " + e.getMessage());
+            }
+        }, "compressao-notas");
+        thread.setDaemon(true);
+        thread.start();
+    }
 }
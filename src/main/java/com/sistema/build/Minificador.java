@@ -0,0 +1,262 @@
+package com.sistema.build;
+
+import java.util.Set;
+
+/**
+ * Minificação conservadora de CSS e JavaScript para a etapa de build.
+ *
+ * Só remove comentários e espaços: não renomeia nada nem reescreve expressões.
+ * Strings, template literals (com ${...} aninhados) e expressões regulares são
+ * copiados como estão. No JavaScript as quebras de linha que podem terminar um
+ * comando são mantidas, para não depender da inserção automática de ';'.
+ * No CSS o espaço em volta de ':' só é removido em declarações; em seletores
+ * (".a :hover") ele é um combinador de descendente.
+ */
+final class Minificador {
+
+    // Espaço ao redor destes caracteres nunca é necessário
+    private static final String SEPARADORES_CSS = "{};,>";
+    private static final String SEPARADORES_JS = "{}()[];,:=<>!?&|";
+    // Quebra de linha depois destes não pode encerrar comando
+    private static final String CONTINUA_JS = "{;,";
+    // Depois destes, '/' inicia expressão regular (e não divisão)
+    private static final String ANTES_DE_REGEX = "(,=:[!&|?{};+-*%<>~^";
+    private static final Set<String> PALAVRAS_ANTES_DE_REGEX = Set.of(
+        "return", "typeof", "case", "do", "else", "in", "of", "new", "delete", "void",
+        "throw", "instanceof", "yield", "await"
+    );
+
+    private Minificador() {}
+
+    static String css(String fonte) {
+        var saida = new StringBuilder(fonte.length());
+        boolean espaco = false;
+        int profundidade = 0;
+        // O último ':' copiado separa propriedade e valor (e não é pseudo-classe)
+        boolean ultimoEmDeclaracao = false;
+        int i = 0;
+        while (i < fonte.length()) {
+            char c = fonte.charAt(i);
+            if (c == '/' && proximo(fonte, i) == '*') {
+                int fim = fonte.indexOf("*/", i + 2);
+                i = fim < 0 ? fonte.length() : fim + 2;
+                espaco = true;
+            } else if (Character.isWhitespace(c)) {
+                espaco = true;
+                i++;
+            } else {
+                // ".a :hover" e "div :not(.x)": o espaço antes de ':' só some dentro de declaração
+                boolean declaracao = c == ':' && profundidade > 0 && !abreBloco(fonte, i);
+                if (espaco && !saida.isEmpty()
+                        && SEPARADORES_CSS.indexOf(ultimo(saida)) < 0 && SEPARADORES_CSS.indexOf(c) < 0
+                        && !declaracao && !(ultimo(saida) == ':' && ultimoEmDeclaracao)) {
+                    saida.append(' ');
+                }
+                espaco = false;
+                if (c == '"' || c == '\'') {
+                    i = copiarString(fonte, i, saida);
+                } else {
+                    // ";}" -> "}"
+                    if (c == '}' && ultimo(saida) == ';') saida.setLength(saida.length() - 1);
+                    if (c == '{') profundidade++;
+                    if (c == '}' && profundidade > 0) profundidade--;
+                    if (c == ':') ultimoEmDeclaracao = declaracao;
+                    saida.append(c);
+                    i++;
+                }
+            }
+        }
+        return saida.toString();
+    }
+
+    // O trecho a partir de i termina em '{' (seletor ou regra aninhada) antes de ';' ou '}'?
+    private static boolean abreBloco(String fonte, int i) {
+        while (i < fonte.length()) {
+            char c = fonte.charAt(i);
+            if (c == '{') return true;
+            if (c == ';' || c == '}') return false;
+            if (c == '"' || c == '\'') {
+                i = copiarString(fonte, i, new StringBuilder());
+            } else if (c == '/' && proximo(fonte, i) == '*') {
+                int fim = fonte.indexOf("*/", i + 2);
+                i = fim < 0 ? fonte.length() : fim + 2;
+            } else {
+                i++;
+            }
+        }
+        return false;
+    }
+
+    static String js(String fonte) {
+        var js = new Js(fonte);
+        js.codigo(false);
+        return js.saida.toString();
+    }
+
+    private static final class Js {
+        final String fonte;
+        final StringBuilder saida;
+        int i;
+        char ultimoSignificativo;
+        String ultimaPalavra = "";
+
+        Js(String fonte) {
+            this.fonte = fonte;
+            this.saida = new StringBuilder(fonte.length());
+        }
+
+        // Código até o fim (ou até o '}' que fecha um ${...} de template)
+        void codigo(boolean dentroDeTemplate) {
+            int chaves = 0;
+            boolean espaco = false;
+            boolean quebra = false;
+            while (i < fonte.length()) {
+                char c = fonte.charAt(i);
+                if (c == '/' && proximo(fonte, i) == '/') {
+                    while (i < fonte.length() && fonte.charAt(i) != '\n') i++;
+                    continue;
+                }
+                if (c == '/' && proximo(fonte, i) == '*') {
+                    int fim = fonte.indexOf("*/", i + 2);
+                    int ate = fim < 0 ? fonte.length() : fim + 2;
+                    if (fonte.substring(i, ate).indexOf('\n') >= 0) quebra = true;
+                    espaco = true;
+                    i = ate;
+                    continue;
+                }
+                if (Character.isWhitespace(c)) {
+                    if (c == '\n') quebra = true;
+                    espaco = true;
+                    i++;
+                    continue;
+                }
+                if (dentroDeTemplate && c == '}' && chaves == 0) return;
+
+                separar(espaco, quebra, c);
+                espaco = false;
+                quebra = false;
+
+                if (c == '"' || c == '\'') {
+                    i = copiarString(fonte, i, saida);
+                    marcar(c, "");
+                } else if (c == '`') {
+                    template();
+                    marcar('`', "");
+                } else if (c == '/' && iniciaRegex()) {
+                    regex();
+                    marcar('/', "");
+                } else if (Character.isJavaIdentifierStart(c)) {
+                    int inicio = i;
+                    while (i < fonte.length() && Character.isJavaIdentifierPart(fonte.charAt(i))) i++;
+                    var palavra = fonte.substring(inicio, i);
+                    saida.append(palavra);
+                    marcar(palavra.charAt(palavra.length() - 1), palavra);
+                } else {
+                    if (c == '{') chaves++;
+                    if (c == '}') chaves--;
+                    saida.append(c);
+                    i++;
+                    marcar(c, "");
+                }
+            }
+        }
+
+        // Espaço/quebra pendente antes do próximo token
+        private void separar(boolean espaco, boolean quebra, char proximo) {
+            if (saida.isEmpty() || !espaco) return;
+            char anterior = ultimo(saida);
+            if (quebra && CONTINUA_JS.indexOf(anterior) < 0 && proximo != '}') {
+                saida.append('\n');
+            } else if (SEPARADORES_JS.indexOf(anterior) < 0 && SEPARADORES_JS.indexOf(proximo) < 0) {
+                saida.append(' ');
+            }
+        }
+
+        private void marcar(char c, String palavra) {
+            ultimoSignificativo = c;
+            ultimaPalavra = palavra;
+        }
+
+        private boolean iniciaRegex() {
+            return ultimoSignificativo == 0
+                || ANTES_DE_REGEX.indexOf(ultimoSignificativo) >= 0
+                || PALAVRAS_ANTES_DE_REGEX.contains(ultimaPalavra);
+        }
+
+        private void template() {
+            saida.append('`');
+            i++;
+            while (i < fonte.length()) {
+                char c = fonte.charAt(i);
+                if (c == '\\') {
+                    saida.append(fonte, i, Math.min(i + 2, fonte.length()));
+                    i += 2;
+                } else if (c == '`') {
+                    saida.append(c);
+                    i++;
+                    return;
+                } else if (c == '$' && proximo(fonte, i) == '{') {
+                    saida.append("${");
+                    i += 2;
+                    marcar('{', "");
+                    codigo(true);
+                    if (i < fonte.length()) {
+                        saida.append('}');
+                        i++;
+                    }
+                } else {
+                    saida.append(c);
+                    i++;
+                }
+            }
+        }
+
+        private void regex() {
+            boolean classe = false;
+            saida.append('/');
+            i++;
+            while (i < fonte.length()) {
+                char c = fonte.charAt(i);
+                if (c == '\\') {
+                    saida.append(fonte, i, Math.min(i + 2, fonte.length()));
+                    i += 2;
+                    continue;
+                }
+                saida.append(c);
+                i++;
+                if (c == '[') classe = true;
+                else if (c == ']') classe = false;
+                else if (c == '/' && !classe) break;
+                else if (c == '\n') return; // não era regex: segue como está
+            }
+            while (i < fonte.length() && Character.isLetter(fonte.charAt(i))) saida.append(fonte.charAt(i++));
+        }
+    }
+
+    // Literal entre aspas copiado como está; devolve a posição depois dele
+    private static int copiarString(String fonte, int i, StringBuilder saida) {
+        char aspas = fonte.charAt(i);
+        saida.append(aspas);
+        i++;
+        while (i < fonte.length()) {
+            char c = fonte.charAt(i);
+            if (c == '\\') {
+                saida.append(fonte, i, Math.min(i + 2, fonte.length()));
+                i += 2;
+                continue;
+            }
+            saida.append(c);
+            i++;
+            if (c == aspas || c == '\n') break;
+        }
+        return i;
+    }
+
+    private static char proximo(String fonte, int i) {
+        return i + 1 < fonte.length() ? fonte.charAt(i + 1) : 0;
+    }
+
+    private static char ultimo(StringBuilder sb) {
+        return sb.isEmpty() ? 0 : sb.charAt(sb.length() - 1);
+    }
+}
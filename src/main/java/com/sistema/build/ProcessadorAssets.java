@@ -0,0 +1,182 @@
+package com.sistema.build;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Etapa de build (exec-maven-plugin, fase process-classes) sobre os arquivos
+ * estáticos já copiados para target/classes/public:
+ *
+ * 1. CSS e JS de css/ e js/ são minificados ({@link Minificador}) e gravados em
+ *    assets/ com o hash do conteúdo no nome (style.&lt;hash&gt;.css); as páginas
+ *    HTML passam a referenciar essas cópias, servidas com cache imutável. Os
+ *    originais continuam no lugar.
+ * 2. Ao lado de cada arquivo de texto é gerada a variante .gz (nível máximo, feita
+ *    uma vez no build), com o índice {@value #INDICE} dos caminhos que têm
+ *    variante; em tempo de execução o ArquivosEstaticosController serve o .gz
+ *    pronto a quem aceita gzip, sem comprimir nada por requisição.
+ *
+ * Uso: ProcessadorAssets &lt;diretório public&gt;
+ */
+public final class ProcessadorAssets {
+
+    public static final String INDICE = ".comprimidos";
+    /** Cópias com hash no nome: servidas com Cache-Control imutável. */
+    public static final String DIRETORIO_VERSIONADOS = "assets";
+
+    private static final Pattern REFERENCIA = Pattern.compile("\\b(href|src)=\"(/[^\"]+)\"");
+
+    private static final Set<String> EXTENSOES_TEXTO = Set.of("html", "css", "js", "svg", "json", "txt");
+    // Abaixo disso o cabeçalho gzip não compensa
+    private static final int MINIMO_BYTES = 256;
+
+    private ProcessadorAssets() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Uso: ProcessadorAssets <diretório public>");
+            System.exit(2);
+        }
+        var raiz = Path.of(args[0]);
+        if (!Files.isDirectory(raiz)) {
+            System.out.println("ProcessadorAssets: " + raiz + " não existe, nada a fazer");
+            return;
+        }
+        versionar(raiz);
+        comprimir(raiz);
+    }
+
+    // Cópias minificadas e com hash no nome, e as páginas HTML apontando para elas
+    static void versionar(Path raiz) throws IOException {
+        var destino = raiz.resolve(DIRETORIO_VERSIONADOS);
+        apagar(destino);
+
+        var versionados = new HashMap<String, String>();
+        for (var pasta : List.of("css", "js")) {
+            var origem = raiz.resolve(pasta);
+            if (!Files.isDirectory(origem)) continue;
+            List<Path> arquivos;
+            try (Stream<Path> todos = Files.walk(origem)) {
+                arquivos = todos.filter(Files::isRegularFile).sorted().toList();
+            }
+            for (var arquivo : arquivos) {
+                var nome = arquivo.getFileName().toString();
+                var ext = extensao(nome);
+                if (!ext.equals("css") && !ext.equals("js")) continue;
+
+                var fonte = Files.readString(arquivo, StandardCharsets.UTF_8);
+                var minificado = (ext.equals("css") ? Minificador.css(fonte) : Minificador.js(fonte))
+                        .getBytes(StandardCharsets.UTF_8);
+                var relativo = raiz.relativize(arquivo.getParent()).resolve(
+                        nome.substring(0, nome.length() - ext.length()) + hash(minificado) + "." + ext);
+                var saida = destino.resolve(relativo);
+                Files.createDirectories(saida.getParent());
+                Files.write(saida, minificado);
+
+                var caminho = "/" + raiz.relativize(arquivo).toString().replace('\\', '/');
+                var caminhoVersionado = "/" + raiz.relativize(saida).toString().replace('\\', '/');
+                versionados.put(caminho, caminhoVersionado);
+                System.out.printf("  %-40s %8d -> %7d bytes  %s%n",
+                        caminho, fonte.getBytes(StandardCharsets.UTF_8).length, minificado.length, caminhoVersionado);
+            }
+        }
+
+        // href="/css/style.css" -> href="/assets/css/style.<hash>.css"
+        List<Path> paginas;
+        try (Stream<Path> todos = Files.walk(raiz)) {
+            paginas = todos.filter(p -> !p.startsWith(destino) && extensao(p.getFileName().toString()).equals("html"))
+                    .sorted().toList();
+        }
+        for (var pagina : paginas) {
+            var html = Files.readString(pagina, StandardCharsets.UTF_8);
+            var reescrito = REFERENCIA.matcher(html).replaceAll(m -> {
+                var novo = versionados.get(m.group(2));
+                return novo == null ? Matcher.quoteReplacement(m.group())
+                        : Matcher.quoteReplacement(m.group(1) + "=\"" + novo + "\"");
+            });
+            if (!reescrito.equals(html)) Files.writeString(pagina, reescrito, StandardCharsets.UTF_8);
+        }
+        System.out.printf("ProcessadorAssets: %d arquivos versionados em /%s%n", versionados.size(), DIRETORIO_VERSIONADOS);
+    }
+
+    static void comprimir(Path raiz) throws IOException {
+        // Sobras de um build anterior: regeradas abaixo se ainda fizerem sentido
+        List<Path> arquivos;
+        try (Stream<Path> todos = Files.walk(raiz)) {
+            arquivos = todos.filter(Files::isRegularFile).sorted().toList();
+        }
+        for (var arquivo : arquivos) {
+            if (arquivo.getFileName().toString().endsWith(".gz")) Files.delete(arquivo);
+        }
+        var indice = new ArrayList<String>();
+        long totalOriginal = 0;
+        long totalComprimido = 0;
+        for (var arquivo : arquivos) {
+            var nome = arquivo.getFileName().toString();
+            if (!EXTENSOES_TEXTO.contains(extensao(nome))) continue;
+
+            var original = Files.readAllBytes(arquivo);
+            if (original.length < MINIMO_BYTES) continue;
+            var gzip = gzip(original);
+            if (gzip.length >= original.length * 0.9) continue;
+
+            Files.write(arquivo.resolveSibling(nome + ".gz"), gzip);
+            var caminho = "/" + raiz.relativize(arquivo).toString().replace('\\', '/');
+            indice.add(caminho);
+            totalOriginal += original.length;
+            totalComprimido += gzip.length;
+            System.out.printf("  %-40s %8d -> %7d bytes (%4.1f%%)%n",
+                    caminho, original.length, gzip.length, 100.0 * gzip.length / original.length);
+        }
+        Files.write(raiz.resolve(INDICE), indice, StandardCharsets.UTF_8);
+        System.out.printf("ProcessadorAssets: %d arquivos, %d -> %d bytes em gzip%n",
+                indice.size(), totalOriginal, totalComprimido);
+    }
+
+    // 10 primeiros dígitos hex do SHA-256: muda sempre que o conteúdo muda
+    static String hash(byte[] dados) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(dados), 0, 5);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void apagar(Path diretorio) throws IOException {
+        if (!Files.exists(diretorio)) return;
+        try (Stream<Path> todos = Files.walk(diretorio)) {
+            for (var p : todos.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+    }
+
+    static byte[] gzip(byte[] dados) throws IOException {
+        var saida = new ByteArrayOutputStream(dados.length / 3 + 64);
+        try (var gz = new GZIPOutputStream(saida) {
+            { def.setLevel(Deflater.BEST_COMPRESSION); }
+        }) {
+            gz.write(dados);
+        }
+        return saida.toByteArray();
+    }
+
+    public static String extensao(String nome) {
+        int ponto = nome.lastIndexOf('.');
+        return ponto < 0 ? "" : nome.substring(ponto + 1).toLowerCase();
+    }
+}
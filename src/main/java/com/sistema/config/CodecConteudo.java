@@ -0,0 +1,108 @@
+package com.sistema.config;
+
+import org.sqlite.Function;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codificação do conteúdo das notas.
+ *
+ * Textos acima de notas.compressao.minBytes são gravados comprimidos (Deflate)
+ * em notas.conteudo_comprimido, com o codec em notas.conteudo_codec e
+ * notas.conteudo nulo. Textos menores (ou que não diminuem) ficam em texto puro.
+ *
+ * A função SQL texto_nota(conteudo, conteudo_comprimido, conteudo_codec) é
+ * registrada em todas as conexões, para que a busca textual e os triggers
+ * enxerguem sempre o texto original.
+ */
+public final class CodecConteudo {
+
+    public static final String DEFLATE = "deflate";
+    public static final String FUNCAO_SQL = "texto_nota";
+
+    // Abaixo disso a compressão não compensa o custo de CPU
+    private static final int MINIMO_BYTES = Configuracao.inteiro("notas.compressao.minBytes", 4096);
+    private static final int NIVEL = Configuracao.inteiro("notas.compressao.nivel", Deflater.DEFAULT_COMPRESSION);
+
+    private CodecConteudo() {}
+
+    // Forma gravada no banco: texto puro ou bytes comprimidos + codec
+    public record Codificado(String texto, byte[] comprimido, String codec) {}
+
+    public static Codificado codificar(String conteudo) {
+        if (conteudo == null) return new Codificado(null, null, null);
+        var bytes = conteudo.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MINIMO_BYTES) return new Codificado(conteudo, null, null);
+
+        var comprimido = comprimir(bytes);
+        // Conteúdo já comprimido (ou aleatório) não diminui: manter como texto
+        if (comprimido.length >= bytes.length) return new Codificado(conteudo, null, null);
+        return new Codificado(null, comprimido, DEFLATE);
+    }
+
+    public static String decodificar(String texto, byte[] comprimido, String codec) throws SQLException {
+        if (codec == null) return texto;
+        if (!DEFLATE.equals(codec)) {
+            throw new SQLException("Codec de conteúdo desconhecido: " + codec);
+        }
+        return comprimido == null ? null : new String(descomprimir(comprimido), StandardCharsets.UTF_8);
+    }
+
+    // Tamanho mínimo (bytes UTF-8) para tentar a compressão
+    public static int getMinimoBytes() { return MINIMO_BYTES; }
+
+    private static byte[] comprimir(byte[] dados) {
+        var deflater = new Deflater(NIVEL);
+        try {
+            deflater.setInput(dados);
+            deflater.finish();
+            var saida = new ByteArrayOutputStream(Math.max(64, dados.length / 4));
+            var buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                saida.write(buffer, 0, n);
+            }
+            return saida.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] descomprimir(byte[] dados) throws SQLException {
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(dados);
+            var saida = new ByteArrayOutputStream(dados.length * 4);
+            var buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SQLException("Conteúdo comprimido truncado");
+                }
+                saida.write(buffer, 0, n);
+            }
+            return saida.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SQLException("Conteúdo comprimido inválido", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // Registrar texto_nota(conteudo, conteudo_comprimido, conteudo_codec) na conexão física
+    static void registrarFuncao(Connection conn) throws SQLException {
+        Function.create(conn, FUNCAO_SQL, new Function() {
+            @Override
+            protected void xFunc() throws SQLException {
+                var texto = decodificar(value_text(0), value_blob(1), value_text(2));
+                if (texto == null) result(); else result(texto);
+            }
+        }, Function.FLAG_DETERMINISTIC);
+    }
+}
@@ -0,0 +1,46 @@
+package com.sistema.config;
+
+/**
+ * Leitura de parâmetros de configuração.
+ * Procura primeiro a propriedade de sistema (-Ddb.pool.tamanho=8) e depois
+ * a variável de ambiente equivalente (DB_POOL_TAMANHO=8).
+ */
+public final class Configuracao {
+
+    private Configuracao() {}
+
+    public static String texto(String chave, String padrao) {
+        var valor = System.getProperty(chave);
+        if (valor == null || valor.isBlank()) {
+            valor = System.getenv(chave.toUpperCase().replace('.', '_'));
+        }
+        return valor == null || valor.isBlank() ? padrao : valor.trim();
+    }
+
+    public static int inteiro(String chave, int padrao) {
+        var valor = texto(chave, null);
+        if (valor == null) return padrao;
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️  Valor inválido para " + chave + ": " + valor + " (usando " + padrao + ")");
+            return padrao;
+        }
+    }
+
+    public static long longo(String chave, long padrao) {
+        var valor = texto(chave, null);
+        if (valor == null) return padrao;
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️  Valor inválido para " + chave + ": " + valor + " (usando " + padrao + ")");
+            return padrao;
+        }
+    }
+
+    public static boolean booleano(String chave, boolean padrao) {
+        var valor = texto(chave, null);
+        return valor == null ? padrao : Boolean.parseBoolean(valor);
+    }
+}
@@ -1,24 +1,136 @@
 package com.sistema.config;
 
 import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class DatabaseConfig {
     
-    private static final String URL = "jdbc:sqlite:database.db";
+    // Arquivo do banco (os testes apontam para um arquivo temporário)
+    private static final String URL = Configuracao.texto("db.url", "jdbc:sqlite:database.db");
+
+    // Modo de armazenamento: "wal" (padrão) ou "rollback" (journal tradicional do SQLite)
+    private static final boolean MODO_WAL = !"rollback".equalsIgnoreCase(Configuracao.texto("db.modo", "wal"));
+
+    // Pool de conexões somente leitura (tamanho e espera máxima configuráveis)
+    private static final PoolConexoes POOL = new PoolConexoes(
+        "leitura",
+        DatabaseConfig::abrirConexaoLeitura,
+        Configuracao.inteiro("db.pool.tamanho", Math.max(4, Runtime.getRuntime().availableProcessors())),
+        Configuracao.longo("db.pool.timeoutMs", 5000)
+    );
+
+    // Escritor único: todas as alterações passam por esta fila, com conexão própria
+    // e commit em grupo (janela em ms / máximo de operações por transação)
+    private static final EscritorBanco ESCRITOR = new EscritorBanco(
+        DatabaseConfig::abrirConexaoEscrita,
+        Configuracao.inteiro("db.escrita.fila", 10_000),
+        Configuracao.longo("db.escrita.janelaMs", 2),
+        Configuracao.inteiro("db.escrita.loteMaximo", 256)
+    );
     
-    // Obter conexão com o banco
+    // Obter conexão de leitura (emprestada do pool; close() devolve ao pool)
     public static Connection getConnection() throws SQLException {
+        return POOL.obter();
+    }
+
+    // Executar alteração no banco pela fila do escritor e aguardar o resultado
+    public static <T> T escrever(EscritorBanco.OperacaoEscrita<T> operacao) throws SQLException {
+        return ESCRITOR.executarAguardando(operacao);
+    }
+
+    // Executar pelo escritor fora de transação (wal_checkpoint, incremental_vacuum)
+    public static <T> T escreverSemTransacao(EscritorBanco.OperacaoEscrita<T> operacao) throws SQLException {
+        return ESCRITOR.executarSemTransacaoAguardando(operacao);
+    }
+
+    // Enfileirar alteração sem bloquear (o futuro completa após o commit do lote)
+    public static <T> CompletableFuture<T> escreverAsync(EscritorBanco.OperacaoEscrita<T> operacao) {
+        return ESCRITOR.submeter(operacao);
+    }
+
+    // Abrir conexão física e aplicar os PRAGMAs uma única vez
+    private static Connection abrirConexao() throws SQLException {
         Connection conn = DriverManager.getConnection(URL);
-        // IMPORTANTE: Habilitar foreign keys no SQLite (por padrão vem desabilitado)
         try (Statement stmt = conn.createStatement()) {
+            // IMPORTANTE: Habilitar foreign keys no SQLite (por padrão vem desabilitado)
             stmt.execute("PRAGMA foreign_keys = ON");
+            // Aguardar o lock em vez de falhar na hora com SQLITE_BUSY
+            stmt.execute("PRAGMA busy_timeout = " + Configuracao.inteiro("db.busyTimeoutMs", 5000));
+            // Cache de páginas (valor negativo = KiB) e leitura via mmap
+            stmt.execute("PRAGMA cache_size = -" + Configuracao.inteiro("db.cacheKb", 16_384));
+            stmt.execute("PRAGMA mmap_size = " + Configuracao.longo("db.mmapBytes", 268_435_456L));
+            // Usada pelos triggers e pela busca textual para ler o conteúdo comprimido
+            CodecConteudo.registrarFuncao(conn);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    // Conexão do escritor: define o journal e o nível de sincronização
+    private static Connection abrirConexaoEscrita() throws SQLException {
+        Connection conn = abrirConexao();
+        try (Statement stmt = conn.createStatement()) {
+            // Só tem efeito em banco novo (antes da primeira tabela); permite incremental_vacuum
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            stmt.execute("PRAGMA journal_mode = " + (MODO_WAL ? "WAL" : "DELETE"));
+            // Em WAL, NORMAL só sincroniza no checkpoint e continua seguro contra corrupção
+            stmt.execute("PRAGMA synchronous = " + Configuracao.texto("db.synchronous", MODO_WAL ? "NORMAL" : "FULL"));
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
         }
         return conn;
     }
+
+    // Conexões do pool só leem: qualquer escrita por engano falha na hora
+    private static Connection abrirConexaoLeitura() throws SQLException {
+        Connection conn = abrirConexao();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA query_only = ON");
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    // Métricas do pool de leitura e da fila de escrita
+    public static Map<String, Object> estatisticasPool() {
+        var dados = new LinkedHashMap<String, Object>();
+        dados.put("modo", MODO_WAL ? "wal" : "rollback");
+        dados.put("leitura", POOL.estatisticas());
+        dados.put("escrita", ESCRITOR.estatisticas());
+        return dados;
+    }
+
+    // Fechar conexões ao encerrar a aplicação
+    public static void fechar() {
+        ManutencaoBanco.parar();
+        ESCRITOR.encerrar();
+        POOL.fechar();
+    }
     
     // Inicializar banco de dados (criar tabelas)
     public static void inicializar() {
-        try (var conn = getConnection(); var stmt = conn.createStatement()) {
+        try {
+            // DDL também passa pelo escritor: é a conexão que define o modo WAL
+            escrever(conn -> {
+                criarEstrutura(conn);
+                return null;
+            });
+        } catch (SQLException e) {
+            System.err.println("❌ Erro ao inicializar banco de dados: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // Criar tabelas, índices e dados padrão
+    private static void criarEstrutura(Connection conn) throws SQLException {
+        try (var stmt = conn.createStatement()) {
             
             // Criar tabela de usuários
             stmt.execute("""
@@ -45,9 +157,20 @@ public class DatabaseConfig {
                 )
             """);
             
+            // Época de revogação por usuário (tokens assinados, auth.tokens.modo=assinado)
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS tokens_epoca (
+                    usuario_id INTEGER PRIMARY KEY,
+                    epoca INTEGER NOT NULL,
+                    FOREIGN KEY (usuario_id) REFERENCES usuarios(id)
+                )
+            """);
+            
             // Criar índices para melhor performance
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_usuarios_email ON usuarios(email)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_sessoes_token ON sessoes(token)");
+            // Limpeza periódica das sessões vencidas (ManutencaoBanco)
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_sessoes_expira ON sessoes(expira_em)");
 
             // Criar tabela de etiquetas
             stmt.execute("""
@@ -98,6 +221,8 @@ public class DatabaseConfig {
                     status_id INTEGER NOT NULL,
                     titulo TEXT NOT NULL,
                     conteudo TEXT,
+                    conteudo_comprimido BLOB,
+                    conteudo_codec TEXT,
                     data_criacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                     data_atualizacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                     prazo_final DATE NOT NULL,
@@ -106,37 +231,135 @@ public class DatabaseConfig {
                 )
             """);
 
+            // Bancos criados antes da compressão de conteúdo
+            adicionarColunaSeAusente(stmt, "notas", "conteudo_comprimido", "BLOB");
+            adicionarColunaSeAusente(stmt, "notas", "conteudo_codec", "TEXT");
+
             // Índices de notas
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_notas_etiqueta ON notas(etiqueta_id)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_notas_status ON notas(status_id)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_notas_prazo ON notas(prazo_final)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_notas_titulo ON notas(titulo)");
+            // Listagem paginada por chave (ORDER BY data_criacao DESC, id DESC)
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notas_criacao ON notas(data_criacao, id)");
+            // Filtros combinados da consulta de notas
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notas_status_prazo ON notas(status_id, prazo_final)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notas_etiqueta_criacao ON notas(etiqueta_id, data_criacao, id)");
+            // Prefixo de título sem diferenciar maiúsculas (otimização de LIKE 'abc%' do SQLite)
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_notas_titulo_nocase ON notas(titulo COLLATE NOCASE)");
 
-            // Trigger de atualização de timestamp
+            // Trigger de atualização de timestamp. Só dispara para colunas de dados: a
+            // compressão em segundo plano restaura data_atualizacao sem disparar de novo.
+            // Recriado a cada início porque a definição mudou (antes: AFTER UPDATE ON notas)
+            stmt.execute("DROP TRIGGER IF EXISTS update_nota_timestamp");
             stmt.execute("""
-                CREATE TRIGGER IF NOT EXISTS update_nota_timestamp
-                AFTER UPDATE ON notas
+                CREATE TRIGGER update_nota_timestamp
+                AFTER UPDATE OF etiqueta_id, status_id, titulo, conteudo, conteudo_comprimido, conteudo_codec, prazo_final ON notas
                 BEGIN
                     UPDATE notas SET data_atualizacao = CURRENT_TIMESTAMP
                     WHERE id = NEW.id;
                 END;
             """);
+
+            // Busca textual (FTS5) sobre título e conteúdo das notas
+            criarBuscaTextual(stmt);
             
             System.out.println("✅ Banco de dados inicializado com sucesso!");
             
-            // Criar usuário admin padrão se não existir
-            criarUsuarioAdmin();
-            
-        } catch (SQLException e) {
-            System.err.println("❌ Erro ao inicializar banco de dados: " + e.getMessage());
-            e.printStackTrace();
+            // Criar usuário admin padrão se não existir (na mesma conexão)
+            criarUsuarioAdmin(conn);
         }
     }
     
+    /**
+     * Índice FTS5 espelhando o título e o conteúdo das notas.
+     * Tabela de conteúdo externo: o texto não é duplicado, o FTS guarda só o índice
+     * e lê o texto da view notas_texto (que descomprime o conteúdo via texto_nota)
+     * para snippets. Os triggers mantêm o índice sincronizado com INSERT/UPDATE/DELETE.
+     */
+    private static void criarBuscaTextual(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE VIEW IF NOT EXISTS notas_texto AS
+            SELECT id, titulo, texto_nota(conteudo, conteudo_comprimido, conteudo_codec) AS conteudo
+            FROM notas
+        """);
+
+        // Índice inexistente ou criado antes da compressão (content = 'notas'): recriar
+        String definicao = null;
+        try (var rs = stmt.executeQuery("SELECT sql FROM sqlite_master WHERE type = 'table' AND name = 'notas_fts'")) {
+            if (rs.next()) definicao = rs.getString(1);
+        }
+        boolean reconstruir = definicao == null || !definicao.contains("notas_texto");
+        if (reconstruir) {
+            stmt.execute("DROP TABLE IF EXISTS notas_fts");
+            stmt.execute("""
+                CREATE VIRTUAL TABLE notas_fts USING fts5(
+                    titulo,
+                    conteudo,
+                    content = 'notas_texto',
+                    content_rowid = 'id',
+                    tokenize = 'unicode61 remove_diacritics 2'
+                )
+            """);
+        }
+
+        // Triggers recriados sempre: as versões antigas liam notas.conteudo direto
+        stmt.execute("DROP TRIGGER IF EXISTS notas_fts_insert");
+        stmt.execute("DROP TRIGGER IF EXISTS notas_fts_delete");
+        stmt.execute("DROP TRIGGER IF EXISTS notas_fts_update");
+
+        stmt.execute("""
+            CREATE TRIGGER notas_fts_insert
+            AFTER INSERT ON notas
+            BEGIN
+                INSERT INTO notas_fts (rowid, titulo, conteudo)
+                VALUES (NEW.id, NEW.titulo, texto_nota(NEW.conteudo, NEW.conteudo_comprimido, NEW.conteudo_codec));
+            END;
+        """);
+
+        stmt.execute("""
+            CREATE TRIGGER notas_fts_delete
+            AFTER DELETE ON notas
+            BEGIN
+                INSERT INTO notas_fts (notas_fts, rowid, titulo, conteudo)
+                VALUES ('delete', OLD.id, OLD.titulo, texto_nota(OLD.conteudo, OLD.conteudo_comprimido, OLD.conteudo_codec));
+            END;
+        """);
+
+        // Só quando o texto muda de fato: comprimir uma nota existente troca a
+        // forma gravada, mas não o texto, e não precisa reindexar
+        stmt.execute("""
+            CREATE TRIGGER notas_fts_update
+            AFTER UPDATE OF titulo, conteudo, conteudo_comprimido ON notas
+            WHEN OLD.titulo IS NOT NEW.titulo
+              OR texto_nota(OLD.conteudo, OLD.conteudo_comprimido, OLD.conteudo_codec)
+                 IS NOT texto_nota(NEW.conteudo, NEW.conteudo_comprimido, NEW.conteudo_codec)
+            BEGIN
+                INSERT INTO notas_fts (notas_fts, rowid, titulo, conteudo)
+                VALUES ('delete', OLD.id, OLD.titulo, texto_nota(OLD.conteudo, OLD.conteudo_comprimido, OLD.conteudo_codec));
+                INSERT INTO notas_fts (rowid, titulo, conteudo)
+                VALUES (NEW.id, NEW.titulo, texto_nota(NEW.conteudo, NEW.conteudo_comprimido, NEW.conteudo_codec));
+            END;
+        """);
+
+        // Índice novo: indexar as notas que já estavam cadastradas
+        if (reconstruir) {
+            stmt.execute("INSERT INTO notas_fts (notas_fts) VALUES ('rebuild')");
+        }
+    }
+
+    private static void adicionarColunaSeAusente(Statement stmt, String tabela, String coluna, String tipo) throws SQLException {
+        try (var rs = stmt.executeQuery("PRAGMA table_info(" + tabela + ")")) {
+            while (rs.next()) {
+                if (coluna.equalsIgnoreCase(rs.getString("name"))) return;
+            }
+        }
+        stmt.execute("ALTER TABLE " + tabela + " ADD COLUMN " + coluna + " " + tipo);
+    }
+
     // Criar usuário admin padrão (para testes)
-    private static void criarUsuarioAdmin() {
-        try (var conn = getConnection();
-             var stmt = conn.prepareStatement("SELECT COUNT(*) FROM usuarios WHERE email = ?")) {
+    private static void criarUsuarioAdmin(Connection conn) {
+        try (var stmt = conn.prepareStatement("SELECT COUNT(*) FROM usuarios WHERE email = ?")) {
             
             stmt.setString(1, "admin@sistema.com");
             var rs = stmt.executeQuery();
@@ -151,9 +374,7 @@ public class DatabaseConfig {
                     insertStmt.setString(3, "(00) 00000-0000");
                     
                     // Senha: "admin123" (você pode mudar depois)
-                    var senhaHash = at.favre.lib.crypto.bcrypt.BCrypt
-                        .withDefaults()
-                        .hashToString(12, "admin123".toCharArray());
+                    var senhaHash = HashSenhas.gerar("admin123");
                     insertStmt.setString(4, senhaHash);
                     
                     insertStmt.executeUpdate();
@@ -168,18 +389,27 @@ public class DatabaseConfig {
         }
     }
     
-    // Limpar sessões expiradas (pode ser chamado periodicamente)
-    public static void limparSessoesExpiradas() {
-        try (var conn = getConnection();
-             var stmt = conn.prepareStatement("DELETE FROM sessoes WHERE expira_em < datetime('now')")) {
-            
-            int deletadas = stmt.executeUpdate();
-            if (deletadas > 0) {
-                System.out.println("🗑️  " + deletadas + " sessões expiradas removidas");
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("Erro ao limpar sessões: " + e.getMessage());
+    // Limpar sessões expiradas em lotes pequenos: cada lote é uma escrita curta,
+    // e as demais escritas da fila entram entre um lote e outro
+    public static int limparSessoesExpiradas(int tamanhoLote) throws SQLException {
+        int total = 0;
+        while (true) {
+            int deletadas = escrever(conn -> {
+                try (var stmt = conn.prepareStatement("""
+                        DELETE FROM sessoes WHERE id IN (
+                            SELECT id FROM sessoes WHERE expira_em < datetime('now') LIMIT ?
+                        )
+                        """)) {
+                    stmt.setInt(1, tamanhoLote);
+                    return stmt.executeUpdate();
+                }
+            });
+            total += deletadas;
+            if (deletadas < tamanhoLote) return total;
         }
     }
+
+    public static boolean isModoWal() {
+        return MODO_WAL;
+    }
 }
@@ -0,0 +1,307 @@
+package com.sistema.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escritor único do banco.
+ *
+ * Todas as alterações (INSERT/UPDATE/DELETE/DDL) entram em uma fila e são
+ * executadas por uma única thread, dona de uma conexão exclusiva. Assim as
+ * escritas ficam serializadas sem disputa de lock no SQLite (sem SQLITE_BUSY)
+ * e os leitores do pool continuam livres graças ao WAL.
+ *
+ * Commit em grupo: as operações que chegam dentro da janela configurada (ou até
+ * o tamanho máximo do lote) são executadas em uma única transação, pagando um
+ * só fsync. Cada operação roda em seu próprio savepoint, então a falha de uma
+ * não desfaz as demais, e cada futuro recebe o próprio resultado após o commit.
+ *
+ * Operações que não podem rodar dentro de transação (wal_checkpoint, VACUUM)
+ * usam {@link #submeterSemTransacao}: executam sozinhas, em autocommit, entre
+ * os lotes vizinhos.
+ */
+public class EscritorBanco {
+
+    // A operação não deve chamar commit/rollback: a transação é do escritor
+    @FunctionalInterface
+    public interface OperacaoEscrita<T> {
+        T executar(Connection conn) throws SQLException;
+    }
+
+    private static final class Tarefa<T> {
+        final OperacaoEscrita<T> operacao;
+        final boolean semTransacao;
+        final CompletableFuture<T> resultado = new CompletableFuture<>();
+
+        Tarefa(OperacaoEscrita<T> operacao, boolean semTransacao) {
+            this.operacao = operacao;
+            this.semTransacao = semTransacao;
+        }
+    }
+
+    private final PoolConexoes.FabricaConexao fabrica;
+    private final BlockingQueue<Tarefa<?>> fila;
+    private final long janelaNanos;
+    private final int tamanhoMaximoLote;
+    private final Thread thread;
+    private Connection conexao; // usada apenas pela thread do escritor
+
+    private final LongAdder executadas = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder tempoTotalNanos = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+    private final AtomicInteger maiorLote = new AtomicInteger();
+
+    private volatile boolean ativo = true;
+
+    public EscritorBanco(PoolConexoes.FabricaConexao fabrica, int capacidadeFila, long janelaMs, int tamanhoMaximoLote) {
+        this.fabrica = fabrica;
+        this.fila = new LinkedBlockingQueue<>(capacidadeFila);
+        this.janelaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, janelaMs));
+        this.tamanhoMaximoLote = Math.max(1, tamanhoMaximoLote);
+        this.thread = new Thread(this::executarLaco, "sqlite-escritor");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // Enfileirar operação e devolver o futuro com o resultado
+    public <T> CompletableFuture<T> submeter(OperacaoEscrita<T> operacao) {
+        return enfileirar(new Tarefa<>(operacao, false));
+    }
+
+    // Enfileirar operação que roda fora de transação (autocommit), isolada do lote
+    public <T> CompletableFuture<T> submeterSemTransacao(OperacaoEscrita<T> operacao) {
+        return enfileirar(new Tarefa<>(operacao, true));
+    }
+
+    private <T> CompletableFuture<T> enfileirar(Tarefa<T> tarefa) {
+        // Chamada feita de dentro de outra operação: executar direto (evita deadlock)
+        if (Thread.currentThread() == thread) {
+            executar(tarefa);
+            return tarefa.resultado;
+        }
+
+        if (!ativo) {
+            tarefa.resultado.completeExceptionally(new SQLException("Escritor do banco encerrado"));
+            return tarefa.resultado;
+        }
+
+        try {
+            fila.put(tarefa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tarefa.resultado.completeExceptionally(new SQLException("Interrompido aguardando a fila de escrita", e));
+        }
+        return tarefa.resultado;
+    }
+
+    // Enfileirar e aguardar o resultado (propaga SQLException original)
+    public <T> T executarAguardando(OperacaoEscrita<T> operacao) throws SQLException {
+        return aguardar(submeter(operacao));
+    }
+
+    // Idem, fora de transação
+    public <T> T executarSemTransacaoAguardando(OperacaoEscrita<T> operacao) throws SQLException {
+        return aguardar(submeterSemTransacao(operacao));
+    }
+
+    private static <T> T aguardar(CompletableFuture<T> futuro) throws SQLException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando escrita no banco", e);
+        } catch (ExecutionException e) {
+            var causa = e.getCause();
+            if (causa instanceof SQLException sql) throw sql;
+            if (causa instanceof RuntimeException re) throw re;
+            throw new SQLException("Erro na escrita: " + causa.getMessage(), causa);
+        }
+    }
+
+    private void executarLaco() {
+        var lote = new ArrayList<Tarefa<?>>(tamanhoMaximoLote);
+        while (ativo || !fila.isEmpty()) {
+            try {
+                lote.add(fila.take());
+                coletarLote(lote);
+            } catch (InterruptedException e) {
+                // encerrar() interrompe a thread; o laço drena o que restou na fila
+            }
+            if (!lote.isEmpty()) {
+                processarLote(lote);
+                lote.clear();
+            }
+        }
+        fecharConexao();
+    }
+
+    // Juntar ao lote o que já está na fila e o que chegar dentro da janela
+    private void coletarLote(List<Tarefa<?>> lote) throws InterruptedException {
+        fila.drainTo(lote, tamanhoMaximoLote - lote.size());
+        long limite = System.nanoTime() + janelaNanos;
+        while (lote.size() < tamanhoMaximoLote && ativo) {
+            long restante = limite - System.nanoTime();
+            if (restante <= 0) break;
+            var proxima = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proxima == null) break;
+            lote.add(proxima);
+            fila.drainTo(lote, tamanhoMaximoLote - lote.size());
+        }
+    }
+
+    // Trechos transacionais viram um lote cada; as operações sem transação rodam sozinhas
+    private void processarLote(List<Tarefa<?>> lote) {
+        int inicio = 0;
+        for (int i = 0; i < lote.size(); i++) {
+            if (lote.get(i).semTransacao) {
+                if (i > inicio) executarLote(lote.subList(inicio, i));
+                executar(lote.get(i));
+                inicio = i + 1;
+            }
+        }
+        if (inicio < lote.size()) executarLote(lote.subList(inicio, lote.size()));
+    }
+
+    private void executarLote(List<Tarefa<?>> lote) {
+        lotes.increment();
+        maiorLote.accumulateAndGet(lote.size(), Math::max);
+
+        // Sempre em transação: uma operação com vários comandos (ex.: executeBatch)
+        // também paga um único commit. Savepoint só quando há vizinhos a proteger.
+        boolean usarSavepoint = lote.size() > 1;
+
+        long inicio = System.nanoTime();
+        var resultados = new Object[lote.size()];
+        var erros = new Throwable[lote.size()];
+        Connection conn;
+        try {
+            conn = obterConexao();
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            lote.forEach(t -> t.resultado.completeExceptionally(e));
+            falhas.add(lote.size());
+            return;
+        }
+
+        try {
+            for (int i = 0; i < lote.size(); i++) {
+                var savepoint = usarSavepoint ? conn.setSavepoint() : null;
+                try {
+                    resultados[i] = lote.get(i).operacao.executar(conn);
+                    if (savepoint != null) conn.releaseSavepoint(savepoint);
+                } catch (Throwable t) {
+                    if (savepoint != null) {
+                        conn.rollback(savepoint);
+                        conn.releaseSavepoint(savepoint);
+                    } else {
+                        conn.rollback();
+                    }
+                    erros[i] = t;
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            // Falha no commit (ou no savepoint): nada do lote foi gravado
+            try {
+                conn.rollback();
+            } catch (SQLException ignored) {
+                // Conexão será recriada se estiver inutilizada
+            }
+            Arrays.fill(erros, e);
+        } finally {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException ignored) {
+                fecharConexao();
+                conexao = null;
+            }
+        }
+
+        long nanosPorOperacao = (System.nanoTime() - inicio) / lote.size();
+        for (int i = 0; i < lote.size(); i++) {
+            completar(lote.get(i), resultados[i], erros[i]);
+            executadas.increment();
+            tempoTotalNanos.add(nanosPorOperacao);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void completar(Tarefa<T> tarefa, Object resultado, Throwable erro) {
+        if (erro != null) {
+            falhas.increment();
+            tarefa.resultado.completeExceptionally(erro);
+        } else {
+            tarefa.resultado.complete((T) resultado);
+        }
+    }
+
+    private <T> void executar(Tarefa<T> tarefa) {
+        long inicio = System.nanoTime();
+        try {
+            T valor = tarefa.operacao.executar(obterConexao());
+            tarefa.resultado.complete(valor);
+        } catch (Throwable t) {
+            falhas.increment();
+            tarefa.resultado.completeExceptionally(t);
+        } finally {
+            executadas.increment();
+            tempoTotalNanos.add(System.nanoTime() - inicio);
+        }
+    }
+
+    private Connection obterConexao() throws SQLException {
+        if (conexao == null || conexao.isClosed()) {
+            conexao = fabrica.criar();
+        }
+        return conexao;
+    }
+
+    private void fecharConexao() {
+        if (conexao == null) return;
+        try {
+            conexao.close();
+        } catch (SQLException ignored) {
+            // Encerrando
+        }
+    }
+
+    // Encerrar após processar as operações já enfileiradas
+    public void encerrar() {
+        ativo = false;
+        thread.interrupt();
+        try {
+            thread.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Map<String, Object> estatisticas() {
+        long total = executadas.sum();
+        long totalLotes = lotes.sum();
+        var dados = new LinkedHashMap<String, Object>();
+        dados.put("fila", fila.size());
+        dados.put("executadas", total);
+        dados.put("falhas", falhas.sum());
+        dados.put("tempoMedioMs", total == 0 ? 0.0 : tempoTotalNanos.sum() / (double) total / 1_000_000.0);
+        dados.put("lotes", totalLotes);
+        dados.put("tamanhoMedioLote", totalLotes == 0 ? 0.0 : total / (double) totalLotes);
+        dados.put("maiorLote", maiorLote.get());
+        dados.put("janelaMs", TimeUnit.NANOSECONDS.toMillis(janelaNanos));
+        dados.put("tamanhoMaximoLote", tamanhoMaximoLote);
+        return dados;
+    }
+}
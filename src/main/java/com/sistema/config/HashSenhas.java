@@ -0,0 +1,212 @@
+package com.sistema.config;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hash e verificação de senhas (BCrypt) fora das threads do Jetty.
+ *
+ * O BCrypt é caro de propósito: rodado direto nas threads de requisição, uma
+ * rajada de logins ocupa todos os núcleos e atrasa rotas que nada têm a ver com
+ * senha. Aqui ele roda em um executor de tamanho fixo (auth.bcrypt.threads) com
+ * fila limitada (auth.bcrypt.fila). Fila cheia ou espera acima de
+ * auth.bcrypt.timeoutMs lança {@link SobrecargaException}, que os controllers
+ * devolvem como 503 com Retry-After em vez de enfileirar sem limite.
+ *
+ * Custo: auth.bcrypt.custo (padrão 12). Com auth.bcrypt.calibrar=true, a
+ * partida mede esta máquina e escolhe o maior custo cujo hash leve até
+ * auth.bcrypt.alvoMs. Hashes gravados com custo menor são refeitos no próximo
+ * login bem-sucedido (ver {@link #precisaRehash}).
+ */
+public final class HashSenhas {
+
+    /** Executor de senhas saturado: a requisição deve ser repetida mais tarde. */
+    public static final class SobrecargaException extends RuntimeException {
+        public SobrecargaException(String mensagem) {
+            super(mensagem);
+        }
+
+        public int getRetryAfterSegundos() {
+            return RETRY_AFTER_SEGUNDOS;
+        }
+    }
+
+    // Faixa considerada pela calibração (o custo configurado aceita 4..31)
+    private static final int CUSTO_MINIMO = 10;
+    private static final int CUSTO_MAXIMO = 16;
+
+    private static final int THREADS = Math.max(1,
+        Configuracao.inteiro("auth.bcrypt.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+    private static final int FILA = Math.max(1, Configuracao.inteiro("auth.bcrypt.fila", 64));
+    private static final long TIMEOUT_MS = Configuracao.longo("auth.bcrypt.timeoutMs", 10_000);
+    private static final int RETRY_AFTER_SEGUNDOS = Configuracao.inteiro("auth.bcrypt.retryAfterSegundos", 2);
+
+    private static volatile int custo = limitar(Configuracao.inteiro("auth.bcrypt.custo", 12));
+    private static volatile double msPorHash; // medido na calibração (0 = não calibrado)
+
+    private static final ThreadPoolExecutor EXECUTOR = criarExecutor();
+
+    private static final LongAdder HASHES = new LongAdder();
+    private static final LongAdder VERIFICACOES = new LongAdder();
+    private static final LongAdder REJEITADAS = new LongAdder();
+    private static final LongAdder REHASHES = new LongAdder();
+
+    private HashSenhas() {}
+
+    private static ThreadPoolExecutor criarExecutor() {
+        var contador = new AtomicInteger();
+        var executor = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(FILA),
+            r -> {
+                var thread = new Thread(r, "bcrypt-" + contador.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // Hash com o custo atual (bloqueia até o executor processar)
+    public static String gerar(String senha) {
+        return aguardar(submeter(() -> hashAgora(senha)));
+    }
+
+    public static boolean verificar(String senha, String hash) {
+        return aguardar(submeter(() -> {
+            VERIFICACOES.increment();
+            return BCrypt.verifyer().verify(senha.toCharArray(), hash).verified;
+        }));
+    }
+
+    /**
+     * Refazer o hash em segundo plano (após login bem-sucedido). Com o executor
+     * saturado a tarefa é simplesmente descartada: fica para um próximo login.
+     */
+    public static CompletableFuture<String> gerarAsync(String senha) {
+        var resultado = new CompletableFuture<String>();
+        try {
+            EXECUTOR.execute(() -> {
+                try {
+                    resultado.complete(hashAgora(senha));
+                    REHASHES.increment();
+                } catch (Throwable t) {
+                    resultado.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            REJEITADAS.increment();
+            resultado.completeExceptionally(new SobrecargaException("Rehash adiado: executor de senhas ocupado"));
+        }
+        return resultado;
+    }
+
+    // Hash gravado com custo menor que o atual (ou em formato não reconhecido)
+    public static boolean precisaRehash(String hash) {
+        var custoGravado = custoDe(hash);
+        return custoGravado < 0 || custoGravado < custo;
+    }
+
+    public static int getCusto() {
+        return custo;
+    }
+
+    /**
+     * Escolher o custo pelo tempo medido nesta máquina (auth.bcrypt.calibrar=true).
+     * Cada ponto de custo dobra o tempo: mede-se o custo mínimo e extrapola-se.
+     */
+    public static void calibrar() {
+        if (!Configuracao.booleano("auth.bcrypt.calibrar", false)) return;
+        long alvoMs = Configuracao.longo("auth.bcrypt.alvoMs", 250);
+
+        var senha = "calibracao".toCharArray();
+        BCrypt.withDefaults().hashToString(CUSTO_MINIMO, senha); // aquecimento (JIT)
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            BCrypt.withDefaults().hashToString(CUSTO_MINIMO, senha);
+        }
+        double msMinimo = (System.nanoTime() - inicio) / 3 / 1_000_000.0;
+
+        int escolhido = CUSTO_MINIMO;
+        while (escolhido < CUSTO_MAXIMO && msMinimo * (1L << (escolhido + 1 - CUSTO_MINIMO)) <= alvoMs) {
+            escolhido++;
+        }
+        custo = escolhido;
+        msPorHash = msMinimo * (1L << (escolhido - CUSTO_MINIMO));
+        System.out.printf("🔐 BCrypt calibrado: custo %d (~%.0f ms por hash, alvo %d ms)%n", escolhido, msPorHash, alvoMs);
+    }
+
+    private static String hashAgora(String senha) {
+        HASHES.increment();
+        return BCrypt.withDefaults().hashToString(custo, senha.toCharArray());
+    }
+
+    private static <T> Future<T> submeter(Callable<T> tarefa) {
+        try {
+            return EXECUTOR.submit(tarefa);
+        } catch (RejectedExecutionException e) {
+            REJEITADAS.increment();
+            throw new SobrecargaException("Servidor ocupado processando senhas. Tente novamente em instantes.");
+        }
+    }
+
+    private static <T> T aguardar(Future<T> futuro) {
+        try {
+            return futuro.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            REJEITADAS.increment();
+            throw new SobrecargaException("Tempo esgotado aguardando verificação de senha. Tente novamente.");
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando hash de senha", e);
+        } catch (ExecutionException e) {
+            var causa = e.getCause();
+            if (causa instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Erro no hash de senha: " + causa.getMessage(), causa);
+        }
+    }
+
+    // "$2a$12$..." -> 12 (-1 se não reconhecido)
+    private static int custoDe(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') return -1;
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int limitar(int valor) {
+        return Math.max(4, Math.min(31, valor));
+    }
+
+    public static Map<String, Object> estatisticas() {
+        var dados = new LinkedHashMap<String, Object>();
+        dados.put("custo", custo);
+        dados.put("msPorHashCalibrado", msPorHash);
+        dados.put("threads", THREADS);
+        dados.put("ativas", EXECUTOR.getActiveCount());
+        dados.put("fila", EXECUTOR.getQueue().size());
+        dados.put("filaMaxima", FILA);
+        dados.put("hashes", HASHES.sum());
+        dados.put("verificacoes", VERIFICACOES.sum());
+        dados.put("rehashes", REHASHES.sum());
+        dados.put("rejeitadas", REJEITADAS.sum());
+        return dados;
+    }
+}
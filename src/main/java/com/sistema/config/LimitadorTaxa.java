@@ -0,0 +1,116 @@
+package com.sistema.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitador de taxa por chave (IP, email...) com balde de fichas.
+ *
+ * Cada chave tem um balde de até {@code capacidade} fichas que se repõe a
+ * {@code porMinuto} fichas por minuto; cada tentativa consome uma. O estado do
+ * balde é um objeto imutável trocado por CAS, sem lock.
+ *
+ * Os baldes ficam em um mapa de tamanho limitado. Um balde parado pelo tempo de
+ * enchimento completo equivale a um novo e é removido na varredura (feita no
+ * máximo a cada poucos segundos). Com o mapa cheio, chaves novas passam sem
+ * limite até a próxima varredura (contadas em "naoRastreadas") em vez de
+ * bloquear todo mundo; nunca varrem o mapa na hora, senão uma rajada de chaves
+ * aleatórias custaria uma varredura completa por requisição.
+ */
+public final class LimitadorTaxa {
+
+    /** Resultado da tentativa: permitida ou segundos até haver ficha. */
+    public record Decisao(boolean permitido, long retryAfterSegundos) {
+        static final Decisao PERMITIDA = new Decisao(true, 0);
+    }
+
+    private record Estado(double fichas, long ultimoNanos) {}
+
+    private static final long VARREDURA_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final String nome;
+    private final double capacidade;
+    private final double fichasPorNano;
+    private final long ociosoNanos;
+    private final int maximoChaves;
+
+    private final ConcurrentHashMap<String, AtomicReference<Estado>> baldes = new ConcurrentHashMap<>();
+    private final AtomicLong proximaVarredura = new AtomicLong(System.nanoTime() + VARREDURA_NANOS);
+
+    private final LongAdder permitidas = new LongAdder();
+    private final LongAdder rejeitadas = new LongAdder();
+    private final LongAdder removidas = new LongAdder();
+    private final LongAdder naoRastreadas = new LongAdder();
+
+    public LimitadorTaxa(String nome, int capacidade, int porMinuto, int maximoChaves) {
+        this.nome = nome;
+        this.capacidade = Math.max(1, capacidade);
+        this.fichasPorNano = Math.max(1, porMinuto) / (double) TimeUnit.MINUTES.toNanos(1);
+        this.ociosoNanos = (long) Math.ceil(this.capacidade / fichasPorNano);
+        this.maximoChaves = Math.max(1, maximoChaves);
+    }
+
+    public Decisao tentar(String chave) {
+        long agora = System.nanoTime();
+        varrerSeNecessario(agora);
+
+        var balde = baldes.get(chave);
+        if (balde == null) {
+            if (baldes.size() >= maximoChaves) {
+                naoRastreadas.increment();
+                permitidas.increment();
+                return Decisao.PERMITIDA;
+            }
+            balde = baldes.computeIfAbsent(chave, k -> new AtomicReference<>(new Estado(capacidade, agora)));
+        }
+
+        while (true) {
+            var atual = balde.get();
+            double fichas = Math.min(capacidade, atual.fichas() + (agora - atual.ultimoNanos()) * fichasPorNano);
+            if (fichas < 1) {
+                rejeitadas.increment();
+                long faltaNanos = (long) Math.ceil((1 - fichas) / fichasPorNano);
+                return new Decisao(false, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(faltaNanos) + 1));
+            }
+            if (balde.compareAndSet(atual, new Estado(fichas - 1, Math.max(agora, atual.ultimoNanos())))) {
+                permitidas.increment();
+                return Decisao.PERMITIDA;
+            }
+        }
+    }
+
+    private void varrerSeNecessario(long agora) {
+        long proxima = proximaVarredura.get();
+        if (agora - proxima >= 0 && proximaVarredura.compareAndSet(proxima, agora + VARREDURA_NANOS)) {
+            varrer(agora);
+        }
+    }
+
+    // Remover baldes que já teriam enchido: esquecê-los não muda nenhuma decisão
+    private void varrer(long agora) {
+        baldes.entrySet().removeIf(e -> {
+            boolean ocioso = agora - e.getValue().get().ultimoNanos() >= ociosoNanos;
+            if (ocioso) removidas.increment();
+            return ocioso;
+        });
+    }
+
+    public Map<String, Object> estatisticas() {
+        var dados = new LinkedHashMap<String, Object>();
+        dados.put("nome", nome);
+        dados.put("capacidade", (long) capacidade);
+        dados.put("porMinuto", Math.round(fichasPorNano * TimeUnit.MINUTES.toNanos(1)));
+        dados.put("chaves", baldes.size());
+        dados.put("maximoChaves", maximoChaves);
+        dados.put("permitidas", permitidas.sum());
+        dados.put("rejeitadas", rejeitadas.sum());
+        dados.put("removidasPorOciosidade", removidas.sum());
+        dados.put("naoRastreadas", naoRastreadas.sum());
+        return dados;
+    }
+}
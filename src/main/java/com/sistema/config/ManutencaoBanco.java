@@ -0,0 +1,194 @@
+package com.sistema.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manutenção periódica do SQLite, em uma thread própria.
+ *
+ * Tarefas (intervalo em minutos por db.manutencao.&lt;tarefa&gt;.intervaloMin, 0 desliga):
+ * - sessoes: apaga sessões vencidas em lotes pequenos;
+ * - optimize: PRAGMA optimize (reanalisa só o que o planejador precisa);
+ * - analyze: ANALYZE completo, limitado por analysis_limit;
+ * - checkpoint: PRAGMA wal_checkpoint (só em WAL), fora de transação;
+ * - vacuum: PRAGMA incremental_vacuum(N), devolvendo páginas livres ao disco.
+ *
+ * Tudo passa pelo escritor único, então a manutenção nunca disputa lock com as
+ * escritas da aplicação. As tarefas rodam uma de cada vez; a duração e as linhas
+ * (ou páginas) afetadas da última execução ficam em {@link #estatisticas()}.
+ */
+public final class ManutencaoBanco {
+
+    @FunctionalInterface
+    private interface Execucao {
+        long executar() throws SQLException;
+    }
+
+    private static final class Tarefa {
+        final String nome;
+        final long intervaloMin;
+        final Execucao execucao;
+
+        volatile long execucoes;
+        volatile long falhas;
+        volatile LocalDateTime ultimaExecucao;
+        volatile long ultimaDuracaoMs;
+        volatile long ultimasLinhas;
+        volatile long totalLinhas;
+        volatile String ultimoErro;
+
+        Tarefa(String nome, long intervaloMin, Execucao execucao) {
+            this.nome = nome;
+            this.intervaloMin = intervaloMin;
+            this.execucao = execucao;
+        }
+    }
+
+    private static final int LOTE_SESSOES = Math.max(1, Configuracao.inteiro("db.manutencao.sessoes.lote", 500));
+    private static final String MODO_CHECKPOINT = Configuracao.texto("db.manutencao.checkpoint.modo", "PASSIVE").toUpperCase();
+    private static final int PAGINAS_VACUUM = Configuracao.inteiro("db.manutencao.vacuum.paginas", 1000);
+    private static final int LIMITE_ANALYZE = Configuracao.inteiro("db.manutencao.analyze.limite", 1000);
+
+    private static final List<Tarefa> TAREFAS = new ArrayList<>();
+    private static ScheduledExecutorService agendador;
+
+    static {
+        registrar("sessoes", 15, () -> DatabaseConfig.limparSessoesExpiradas(LOTE_SESSOES));
+        registrar("optimize", 60, () -> DatabaseConfig.escrever(conn -> executarPragma(conn, "PRAGMA optimize")));
+        registrar("analyze", 1440, () -> DatabaseConfig.escrever(conn -> {
+            executarPragma(conn, "PRAGMA analysis_limit = " + LIMITE_ANALYZE);
+            executarPragma(conn, "ANALYZE");
+            return 0L;
+        }));
+        if (DatabaseConfig.isModoWal()) {
+            registrar("checkpoint", 5, () -> DatabaseConfig.escreverSemTransacao(ManutencaoBanco::checkpoint));
+        }
+        registrar("vacuum", 60, () -> DatabaseConfig.escreverSemTransacao(ManutencaoBanco::vacuumIncremental));
+    }
+
+    private ManutencaoBanco() {}
+
+    private static void registrar(String nome, long intervaloPadraoMin, Execucao execucao) {
+        long intervalo = Configuracao.longo("db.manutencao." + nome + ".intervaloMin", intervaloPadraoMin);
+        TAREFAS.add(new Tarefa(nome, intervalo, execucao));
+    }
+
+    // Agendar as tarefas (db.manutencao.ativa=false desliga tudo)
+    public static synchronized void iniciar() {
+        if (agendador != null || !Configuracao.booleano("db.manutencao.ativa", true)) return;
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "manutencao-banco");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (var tarefa : TAREFAS) {
+            if (tarefa.intervaloMin <= 0) continue;
+            // Primeira execução logo após a partida, sem competir com ela
+            long atrasoInicial = Math.min(tarefa.intervaloMin, 1);
+            agendador.scheduleWithFixedDelay(() -> executar(tarefa), atrasoInicial, tarefa.intervaloMin, TimeUnit.MINUTES);
+        }
+    }
+
+    public static synchronized void parar() {
+        if (agendador == null) return;
+        agendador.shutdownNow();
+        try {
+            agendador.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        agendador = null;
+    }
+
+    private static void executar(Tarefa tarefa) {
+        long inicio = System.nanoTime();
+        try {
+            long linhas = tarefa.execucao.executar();
+            tarefa.ultimasLinhas = linhas;
+            tarefa.totalLinhas += linhas;
+            tarefa.ultimoErro = null;
+        } catch (Exception e) {
+            // Uma falha não pode cancelar o agendamento (scheduleWithFixedDelay para na exceção)
+            tarefa.falhas++;
+            tarefa.ultimoErro = e.getMessage();
+            System.err.println("⚠️  Manutenção '" + tarefa.nome + "' falhou: " + e.getMessage());
+        } finally {
+            tarefa.execucoes++;
+            tarefa.ultimaExecucao = LocalDateTime.now();
+            tarefa.ultimaDuracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        }
+    }
+
+    // Páginas do WAL copiadas para o banco
+    private static long checkpoint(Connection conn) throws SQLException {
+        var modo = switch (MODO_CHECKPOINT) {
+            case "FULL", "RESTART", "TRUNCATE" -> MODO_CHECKPOINT;
+            default -> "PASSIVE";
+        };
+        try (var stmt = conn.createStatement();
+             var rs = stmt.executeQuery("PRAGMA wal_checkpoint(" + modo + ")")) {
+            // Colunas: busy, páginas no WAL, páginas copiadas
+            return rs.next() ? rs.getLong(3) : 0;
+        }
+    }
+
+    // Páginas livres devolvidas ao sistema de arquivos (0 se o banco não usa auto_vacuum incremental)
+    private static long vacuumIncremental(Connection conn) throws SQLException {
+        try (var stmt = conn.createStatement()) {
+            try (var rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+                if (!rs.next() || rs.getInt(1) != 2) return 0;
+            }
+            long antes = contarPaginasLivres(conn);
+            long alvo = Math.max(0, antes - PAGINAS_VACUUM);
+            // O driver pode avançar o comando um passo só (uma página): repetir até o alvo
+            long livres = antes;
+            while (livres > alvo) {
+                stmt.execute("PRAGMA incremental_vacuum(" + (livres - alvo) + ")");
+                long depois = contarPaginasLivres(conn);
+                if (depois >= livres) break;
+                livres = depois;
+            }
+            return antes - livres;
+        }
+    }
+
+    private static long contarPaginasLivres(Connection conn) throws SQLException {
+        try (var stmt = conn.createStatement();
+             var rs = stmt.executeQuery("PRAGMA freelist_count")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static long executarPragma(Connection conn, String sql) throws SQLException {
+        try (var stmt = conn.createStatement()) {
+            stmt.execute(sql);
+            return 0;
+        }
+    }
+
+    public static List<Map<String, Object>> estatisticas() {
+        var lista = new ArrayList<Map<String, Object>>();
+        for (var tarefa : TAREFAS) {
+            var dados = new LinkedHashMap<String, Object>();
+            dados.put("tarefa", tarefa.nome);
+            dados.put("intervaloMin", tarefa.intervaloMin);
+            dados.put("execucoes", tarefa.execucoes);
+            dados.put("falhas", tarefa.falhas);
+            dados.put("ultimaExecucao", tarefa.ultimaExecucao != null ? tarefa.ultimaExecucao.toString() : null);
+            dados.put("ultimaDuracaoMs", tarefa.ultimaDuracaoMs);
+            dados.put("ultimasLinhas", tarefa.ultimasLinhas);
+            dados.put("totalLinhas", tarefa.totalLinhas);
+            dados.put("ultimoErro", tarefa.ultimoErro);
+            lista.add(dados);
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,200 @@
+package com.sistema.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool limitado de conexões JDBC.
+ *
+ * As conexões físicas são criadas sob demanda pela fábrica (que já aplica os
+ * PRAGMAs) e reaproveitadas depois. O {@code close()} da conexão entregue
+ * apenas devolve a conexão física ao pool.
+ */
+public class PoolConexoes {
+
+    @FunctionalInterface
+    public interface FabricaConexao {
+        Connection criar() throws SQLException;
+    }
+
+    private final String nome;
+    private final FabricaConexao fabrica;
+    private final int tamanhoMaximo;
+    private final long timeoutMs;
+
+    // LIFO: a conexão devolvida por último é a próxima a ser usada (cache do SQLite mais quente)
+    private final LinkedBlockingDeque<Connection> ociosas = new LinkedBlockingDeque<>();
+    private final Semaphore permissoes;
+    private final AtomicInteger criadas = new AtomicInteger();
+    private final AtomicInteger ativas = new AtomicInteger();
+
+    // Métricas de espera na aquisição
+    private final LongAdder aquisicoes = new LongAdder();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+
+    private volatile boolean fechado;
+
+    public PoolConexoes(String nome, FabricaConexao fabrica, int tamanhoMaximo, long timeoutMs) {
+        if (tamanhoMaximo < 1) {
+            throw new IllegalArgumentException("Tamanho do pool deve ser maior que zero");
+        }
+        this.nome = nome;
+        this.fabrica = fabrica;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.timeoutMs = timeoutMs;
+        this.permissoes = new Semaphore(tamanhoMaximo, true);
+    }
+
+    // Obter conexão (aguarda até timeoutMs se todas estiverem em uso)
+    public Connection obter() throws SQLException {
+        if (fechado) {
+            throw new SQLException("Pool de conexões '" + nome + "' encerrado");
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            if (!permissoes.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLException("Tempo esgotado aguardando conexão do pool '" + nome + "' (" + timeoutMs + " ms)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando conexão do pool '" + nome + "'", e);
+        }
+        registrarEspera(System.nanoTime() - inicio);
+
+        try {
+            var fisica = ociosas.pollFirst();
+            if (fisica != null && fisica.isClosed()) {
+                criadas.decrementAndGet();
+                fisica = null;
+            }
+            if (fisica == null) {
+                fisica = fabrica.criar();
+                criadas.incrementAndGet();
+            }
+            ativas.incrementAndGet();
+            return embrulhar(fisica);
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    // Devolver conexão física ao pool (chamado pelo close() do proxy)
+    private void devolver(Connection fisica) {
+        ativas.decrementAndGet();
+        try {
+            if (fechado || fisica.isClosed()) {
+                descartar(fisica);
+                return;
+            }
+            // Não deixar transação pendente para o próximo usuário
+            if (!fisica.getAutoCommit()) {
+                fisica.rollback();
+                fisica.setAutoCommit(true);
+            }
+            ociosas.offerFirst(fisica);
+        } catch (SQLException e) {
+            descartar(fisica);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    private void descartar(Connection fisica) {
+        criadas.decrementAndGet();
+        try {
+            fisica.close();
+        } catch (SQLException ignored) {
+            // Conexão já inutilizada
+        }
+    }
+
+    private void registrarEspera(long nanos) {
+        aquisicoes.increment();
+        esperaTotalNanos.add(nanos);
+        esperaMaximaNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private Connection embrulhar(Connection fisica) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean devolvida;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!devolvida) {
+                            devolvida = true;
+                            devolver(fisica);
+                        }
+                        return null;
+                    case "isClosed":
+                        return devolvida || fisica.isClosed();
+                    case "unwrap":
+                        if (args[0] == Connection.class) return proxy;
+                        break;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                if (devolvida) {
+                    throw new SQLException("Conexão já devolvida ao pool");
+                }
+                try {
+                    return method.invoke(fisica, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, handler);
+    }
+
+    // Fechar todas as conexões ociosas (as ativas são fechadas ao serem devolvidas)
+    public void fechar() {
+        fechado = true;
+        Connection c;
+        while ((c = ociosas.pollFirst()) != null) {
+            descartar(c);
+        }
+    }
+
+    public int getTamanhoMaximo() { return tamanhoMaximo; }
+    public int getAtivas() { return ativas.get(); }
+    public int getOciosas() { return ociosas.size(); }
+
+    public Map<String, Object> estatisticas() {
+        long total = aquisicoes.sum();
+        var dados = new LinkedHashMap<String, Object>();
+        dados.put("nome", nome);
+        dados.put("tamanhoMaximo", tamanhoMaximo);
+        dados.put("ativas", ativas.get());
+        dados.put("ociosas", ociosas.size());
+        dados.put("criadas", criadas.get());
+        dados.put("aquisicoes", total);
+        dados.put("timeouts", timeouts.sum());
+        dados.put("esperaMediaMs", total == 0 ? 0.0 : esperaTotalNanos.sum() / (double) total / 1_000_000.0);
+        dados.put("esperaMaximaMs", esperaMaximaNanos.get() / 1_000_000.0);
+        return dados;
+    }
+}
@@ -0,0 +1,190 @@
+package com.sistema.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roda de temporização hierárquica (timing wheel) para muitos temporizadores.
+ *
+ * O tempo anda em ticks. Há {@link #NIVEIS} rodas de {@link #SLOTS} posições:
+ * a roda 0 cobre os próximos 64 ticks, a roda 1 blocos de 64 ticks, e assim por
+ * diante (com ticks de 1 minuto, 64^4 minutos ≈ 31 anos). Agendar, reagendar e
+ * cancelar custam O(1): a entrada vai para a lista de uma posição, e um mapa por
+ * chave permite tirá-la dela. Quando uma roda dá a volta, as entradas da posição
+ * seguinte da roda de cima descem para as rodas de baixo, até dispararem na roda 0.
+ *
+ * Não é thread-safe: quem usa sincroniza (ver AgendaPrazos).
+ */
+public final class RodaTemporizacao<K, V> {
+
+    public static final int BITS = 6;
+    public static final int SLOTS = 1 << BITS;
+    public static final int NIVEIS = 4;
+    private static final int MASCARA = SLOTS - 1;
+
+    /** Temporizador vencido: chave, valor e o tick em que deveria disparar. */
+    public record Disparo<K, V>(K chave, V valor, long tick) {}
+
+    // Nó de lista duplamente encadeada (remoção O(1) a partir do mapa)
+    private static final class Entrada<K, V> {
+        final K chave;
+        final V valor;
+        final long tick;
+        Entrada<K, V> anterior;
+        Entrada<K, V> proxima;
+        Lista<K, V> lista;
+
+        Entrada(K chave, V valor, long tick) {
+            this.chave = chave;
+            this.valor = valor;
+            this.tick = tick;
+        }
+    }
+
+    private static final class Lista<K, V> {
+        Entrada<K, V> cabeca;
+
+        void adicionar(Entrada<K, V> e) {
+            e.lista = this;
+            e.anterior = null;
+            e.proxima = cabeca;
+            if (cabeca != null) cabeca.anterior = e;
+            cabeca = e;
+        }
+
+        void remover(Entrada<K, V> e) {
+            if (e.anterior != null) e.anterior.proxima = e.proxima; else cabeca = e.proxima;
+            if (e.proxima != null) e.proxima.anterior = e.anterior;
+            e.anterior = e.proxima = null;
+            e.lista = null;
+        }
+
+        // Esvaziar e devolver as entradas
+        List<Entrada<K, V>> drenar() {
+            var itens = new ArrayList<Entrada<K, V>>();
+            for (var e = cabeca; e != null; ) {
+                var proxima = e.proxima;
+                e.anterior = e.proxima = null;
+                e.lista = null;
+                itens.add(e);
+                e = proxima;
+            }
+            cabeca = null;
+            return itens;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final Lista<K, V>[][] rodas = new Lista[NIVEIS][SLOTS];
+    private final Lista<K, V> alemDoHorizonte = new Lista<>(); // além de 64^NIVEIS ticks
+    private final Map<K, Entrada<K, V>> porChave = new HashMap<>();
+    private long tickAtual;
+
+    private long disparados;
+    private long cascatas;
+
+    public RodaTemporizacao(long tickInicial) {
+        for (var roda : rodas) {
+            for (int i = 0; i < SLOTS; i++) roda[i] = new Lista<>();
+        }
+        this.tickAtual = tickInicial;
+    }
+
+    public long getTickAtual() {
+        return tickAtual;
+    }
+
+    /**
+     * Agendar (ou reagendar) a chave para o tick informado. Um tick que já passou
+     * é devolvido como disparo imediato em vez de ser agendado.
+     */
+    public List<Disparo<K, V>> agendar(K chave, V valor, long tick) {
+        cancelar(chave);
+        var entrada = new Entrada<>(chave, valor, tick);
+        if (tick <= tickAtual) {
+            disparados++;
+            return List.of(new Disparo<>(chave, valor, tick));
+        }
+        porChave.put(chave, entrada);
+        posicionar(entrada);
+        return List.of();
+    }
+
+    public boolean cancelar(K chave) {
+        var entrada = porChave.remove(chave);
+        if (entrada == null) return false;
+        entrada.lista.remover(entrada);
+        return true;
+    }
+
+    // Esvaziar a roda sem disparar nada
+    public void limpar() {
+        for (var roda : rodas) {
+            for (var lista : roda) lista.drenar();
+        }
+        alemDoHorizonte.drenar();
+        porChave.clear();
+    }
+
+    public int tamanho() {
+        return porChave.size();
+    }
+
+    /** Andar até o tick informado, devolvendo o que venceu no caminho (em ordem de tick). */
+    public List<Disparo<K, V>> avancar(long ate) {
+        var vencidos = new ArrayList<Disparo<K, V>>();
+        while (tickAtual < ate) {
+            tickAtual++;
+            // De cima para baixo: o que desce de uma roda pode cair na posição que a de baixo vai descer agora
+            if ((tickAtual & ((1L << (BITS * NIVEIS)) - 1)) == 0) {
+                redistribuir(alemDoHorizonte);
+            }
+            for (int nivel = NIVEIS - 1; nivel >= 1; nivel--) {
+                if ((tickAtual & ((1L << (BITS * nivel)) - 1)) == 0) {
+                    redistribuir(rodas[nivel][indice(tickAtual, nivel)]);
+                }
+            }
+            for (var e : rodas[0][indice(tickAtual, 0)].drenar()) {
+                porChave.remove(e.chave);
+                vencidos.add(new Disparo<>(e.chave, e.valor, e.tick));
+            }
+        }
+        disparados += vencidos.size();
+        return vencidos;
+    }
+
+    private void redistribuir(Lista<K, V> lista) {
+        for (var e : lista.drenar()) {
+            cascatas++;
+            posicionar(e);
+        }
+    }
+
+    // Nível = menor roda em que tick e tickAtual só diferem no dígito daquela roda
+    private void posicionar(Entrada<K, V> e) {
+        long tick = Math.max(e.tick, tickAtual);
+        for (int nivel = 0; nivel < NIVEIS; nivel++) {
+            if ((tick >>> (BITS * (nivel + 1))) == (tickAtual >>> (BITS * (nivel + 1)))) {
+                rodas[nivel][indice(tick, nivel)].adicionar(e);
+                return;
+            }
+        }
+        alemDoHorizonte.adicionar(e);
+    }
+
+    private static int indice(long tick, int nivel) {
+        return (int) ((tick >>> (BITS * nivel)) & MASCARA);
+    }
+
+    public Map<String, Object> estatisticas() {
+        var dados = new LinkedHashMap<String, Object>();
+        dados.put("agendados", porChave.size());
+        dados.put("tickAtual", tickAtual);
+        dados.put("disparados", disparados);
+        dados.put("cascatas", cascatas);
+        return dados;
+    }
+}
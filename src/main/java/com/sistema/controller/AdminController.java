@@ -0,0 +1,83 @@
+package com.sistema.controller;
+
+import com.sistema.config.DatabaseConfig;
+import com.sistema.config.HashSenhas;
+import com.sistema.config.ManutencaoBanco;
+import com.sistema.repository.EtiquetaRepository;
+import com.sistema.repository.StatusNotaRepository;
+import com.sistema.service.AgendaPrazos;
+import com.sistema.service.AuthService;
+import com.sistema.service.CanalEventos;
+import io.javalin.http.Context;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class AdminController {
+
+    // GET /api/admin/pool - Métricas do pool de conexões
+    public void pool(Context ctx) {
+        ctx.json(Map.of(
+            "sucesso", true,
+            "dados", DatabaseConfig.estatisticasPool()
+        ));
+    }
+
+    // GET /api/admin/cache - Acertos/faltas dos caches de etiquetas, status, sessões e tokens
+    public void cache(Context ctx) {
+        ctx.json(Map.of(
+            "sucesso", true,
+            "dados", Stream.concat(
+                Stream.of(EtiquetaRepository.estatisticasCache(), StatusNotaRepository.estatisticasCache()),
+                AuthService.estatisticasCache().stream()
+            ).toList()
+        ));
+    }
+
+    // GET /api/admin/senhas - Executor de BCrypt: custo, fila e rejeições
+    public void senhas(Context ctx) {
+        ctx.json(Map.of(
+            "sucesso", true,
+            "dados", HashSenhas.estatisticas()
+        ));
+    }
+
+    // GET /api/admin/limites - Tentativas de login permitidas/rejeitadas por IP e por email
+    public void limites(Context ctx) {
+        ctx.json(Map.of(
+            "sucesso", true,
+            "dados", AuthController.estatisticasLimites()
+        ));
+    }
+
+    // GET /api/admin/manutencao - Última execução, duração e linhas de cada tarefa de manutenção
+    public void manutencao(Context ctx) {
+        ctx.json(Map.of(
+            "sucesso", true,
+            "dados", ManutencaoBanco.estatisticas()
+        ));
+    }
+
+    // GET /api/admin/prazos - Agenda de limiares de prazo: notas agendadas e eventos emitidos
+    public void prazos(Context ctx) {
+        ctx.json(Map.of(
+            "sucesso", true,
+            "dados", AgendaPrazos.estatisticas()
+        ));
+    }
+
+    // GET /api/admin/eventos - Clientes SSE conectados, eventos entregues e clientes lentos descartados
+    public void eventos(Context ctx) {
+        ctx.json(Map.of(
+            "sucesso", true,
+            "dados", CanalEventos.estatisticas()
+        ));
+    }
+
+    // GET /api/admin/respostas - Cache de respostas serializadas: entradas, bytes, acertos e descartes
+    public void respostas(Context ctx) {
+        ctx.json(Map.of(
+            "sucesso", true,
+            "dados", CacheRespostas.estatisticas()
+        ));
+    }
+}
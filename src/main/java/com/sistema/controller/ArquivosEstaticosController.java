@@ -0,0 +1,98 @@
+package com.sistema.controller;
+
+import com.sistema.build.ProcessadorAssets;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Serve as variantes .gz geradas no build (ver {@link ProcessadorAssets}) para
+ * quem envia Accept-Encoding: gzip. Os demais pedidos seguem para o tratamento
+ * padrão de arquivos estáticos do Javalin.
+ *
+ * Só os caminhos do índice gerado no build são considerados; cada variante é lida
+ * do classpath uma vez e mantida em memória (os arquivos são poucos e pequenos).
+ * Em /assets (nomes com hash do conteúdo) o cache é imutável; o resto revalida.
+ */
+public class ArquivosEstaticosController {
+
+    public static final String CACHE_IMUTAVEL = "public, max-age=31536000, immutable";
+
+    private static final String RAIZ = "/public";
+    private static final String PREFIXO_VERSIONADOS = "/" + ProcessadorAssets.DIRETORIO_VERSIONADOS + "/";
+
+    private static final Map<String, String> TIPOS = Map.of(
+        "html", "text/html; charset=utf-8",
+        "css", "text/css; charset=utf-8",
+        "js", "text/javascript; charset=utf-8",
+        "svg", "image/svg+xml",
+        "json", "application/json",
+        "txt", "text/plain; charset=utf-8"
+    );
+
+    private record Variante(byte[] gzip, String tipo, String etag) {}
+
+    private final Set<String> comprimidos = lerIndice();
+    private final Map<String, Optional<Variante>> variantes = new ConcurrentHashMap<>();
+
+    // before: responde com o .gz e encerra, ou deixa seguir para o Javalin
+    public void servirComprimido(Context ctx) {
+        if (ctx.method() != HandlerType.GET && ctx.method() != HandlerType.HEAD) return;
+        var caminho = ctx.path();
+        if (!comprimidos.contains(caminho)) return;
+        var aceita = ctx.header("Accept-Encoding");
+        if (aceita == null || !aceita.contains("gzip")) return;
+
+        var variante = variantes.computeIfAbsent(caminho, this::carregar);
+        if (variante.isEmpty()) return;
+
+        var v = variante.get();
+        ctx.header("Vary", "Accept-Encoding");
+        ctx.header("Cache-Control", caminho.startsWith(PREFIXO_VERSIONADOS) ? CACHE_IMUTAVEL : "no-cache");
+        ctx.header("ETag", v.etag());
+        if (v.etag().equals(ctx.header("If-None-Match"))) {
+            ctx.status(304);
+        } else {
+            ctx.contentType(v.tipo());
+            // Content-Encoding já definido: o Javalin não comprime de novo
+            ctx.header("Content-Encoding", "gzip");
+            ctx.result(v.gzip());
+        }
+        ctx.skipRemainingHandlers();
+    }
+
+    private Optional<Variante> carregar(String caminho) {
+        try (var entrada = getClass().getResourceAsStream(RAIZ + caminho + ".gz")) {
+            if (entrada == null) return Optional.empty();
+            var gzip = entrada.readAllBytes();
+            var crc = new CRC32();
+            crc.update(gzip);
+            var tipo = TIPOS.getOrDefault(ProcessadorAssets.extensao(caminho), "application/octet-stream");
+            return Optional.of(new Variante(gzip, tipo, "\"gz-" + Long.toHexString(crc.getValue()) + "\""));
+        } catch (IOException e) {
+            System.err.println("⚠️  Falha ao ler " + caminho + ".gz: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Sem índice (ex.: rodando sem a etapa de build) nada é servido comprimido daqui
+    private static Set<String> lerIndice() {
+        var entrada = ArquivosEstaticosController.class.getResourceAsStream(RAIZ + "/" + ProcessadorAssets.INDICE);
+        if (entrada == null) return Set.of();
+        try (var leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            return leitor.lines().filter(l -> !l.isBlank()).collect(Collectors.toUnmodifiableSet());
+        } catch (IOException e) {
+            System.err.println("⚠️  Falha ao ler o índice de arquivos comprimidos: " + e.getMessage());
+            return Set.of();
+        }
+    }
+}
@@ -1,12 +1,28 @@
 package com.sistema.controller;
 
 //import com.sistema.model.UsuarioDTO;
+import com.sistema.config.Configuracao;
+import com.sistema.config.HashSenhas;
+import com.sistema.config.LimitadorTaxa;
 import com.sistema.service.AuthService;
 import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import java.util.List;
 import java.util.Map;
 
 public class AuthController {
     
+    // Limite de tentativas de login antes do BCrypt: por IP e por email
+    private static final int MAXIMO_CHAVES = Configuracao.inteiro("auth.login.maxChaves", 100_000);
+    private static final LimitadorTaxa LIMITE_IP = new LimitadorTaxa("login-ip",
+        Configuracao.inteiro("auth.login.ip.capacidade", 20),
+        Configuracao.inteiro("auth.login.ip.porMinuto", 10),
+        MAXIMO_CHAVES);
+    private static final LimitadorTaxa LIMITE_EMAIL = new LimitadorTaxa("login-email",
+        Configuracao.inteiro("auth.login.email.capacidade", 5),
+        Configuracao.inteiro("auth.login.email.porMinuto", 3),
+        MAXIMO_CHAVES);
+    
     private final AuthService authService;
     
     public AuthController() {
@@ -18,6 +34,20 @@ public class AuthController {
         try {
             var body = ctx.bodyAsClass(LoginRequest.class);
 
+            // Recusar antes de chegar ao hash da senha
+            var decisao = LIMITE_IP.tentar(ctx.ip());
+            if (decisao.permitido() && body.email != null) {
+                decisao = LIMITE_EMAIL.tentar(body.email.trim().toLowerCase());
+            }
+            if (!decisao.permitido()) {
+                ctx.header("Retry-After", String.valueOf(decisao.retryAfterSegundos()));
+                ctx.status(429).json(Map.of(
+                    "sucesso", false,
+                    "mensagem", "Muitas tentativas de login. Tente novamente em " + decisao.retryAfterSegundos() + " segundo(s)."
+                ));
+                return;
+            }
+
             var resultado = authService.login(body.email, body.senha);
 
             if (resultado.isPresent()) {
@@ -38,6 +68,12 @@ public class AuthController {
                 ));
             }
 
+        } catch (HashSenhas.SobrecargaException e) {
+            ctx.header("Retry-After", String.valueOf(e.getRetryAfterSegundos()));
+            ctx.status(503).json(Map.of(
+                "sucesso", false,
+                "mensagem", e.getMessage()
+            ));
         } catch (IllegalArgumentException e) {
             // Exceção específica para usuário inativo
             ctx.status(403).json(Map.of(
@@ -112,6 +148,48 @@ public class AuthController {
         }
     }
     
+    // before("/api/*") - exige sessão válida; o id do usuário fica em ctx.attribute("usuarioId")
+    public void exigirAutenticacao(Context ctx) {
+        if (rotaPublica(ctx)) {
+            return;
+        }
+
+        try {
+            var usuarioId = authService.autenticar(obterToken(ctx));
+
+            if (usuarioId.isPresent()) {
+                ctx.attribute("usuarioId", usuarioId.get());
+                return;
+            }
+
+            ctx.status(401).json(Map.of(
+                "sucesso", false,
+                "mensagem", "Não autenticado: sessão inválida ou expirada"
+            ));
+        } catch (Exception e) {
+            ctx.status(500).json(Map.of(
+                "sucesso", false,
+                "mensagem", "Erro ao verificar sessão: " + e.getMessage()
+            ));
+        }
+        ctx.skipRemainingHandlers();
+    }
+
+    // Métricas dos limitadores de login (para /api/admin/limites)
+    public static List<Map<String, Object>> estatisticasLimites() {
+        return List.of(LIMITE_IP.estatisticas(), LIMITE_EMAIL.estatisticas());
+    }
+
+    // Login, logout, cadastro de usuário e preflight CORS não exigem sessão
+    private boolean rotaPublica(Context ctx) {
+        var metodo = ctx.method();
+        var caminho = ctx.path();
+        return metodo == HandlerType.OPTIONS
+            || caminho.equals("/api/auth/login")
+            || caminho.equals("/api/auth/logout")
+            || (metodo == HandlerType.POST && caminho.equals("/api/usuarios"));
+    }
+    
     // Obter token do header ou cookie
     private String obterToken(Context ctx) {
         // Tentar obter do header Authorization
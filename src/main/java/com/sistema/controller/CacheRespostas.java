@@ -0,0 +1,136 @@
+package com.sistema.controller;
+
+import com.sistema.config.Configuracao;
+import io.javalin.http.Context;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache das respostas JSON já serializadas das leituras mais frequentes
+ * (etiquetas, status, alertas e primeira página de notas).
+ *
+ * A chave é a rota com a query string; cada entrada guarda o ETag com que foi
+ * gerada (ver {@link RespostaCondicional}). Uma escrita muda a versão da tabela e,
+ * com ela, o ETag: a entrada antiga deixa de servir e é descartada no próximo
+ * acesso. Acima de respostas.cache.gzipMinBytes a entrada guarda também a versão
+ * gzip, enviada a quem aceita. O total de bytes é limitado
+ * (respostas.cache.maxBytes), com descarte do menos usado (LRU).
+ *
+ * Um acerto é uma única escrita de buffer pronto, sem Jackson nem banco.
+ */
+final class CacheRespostas {
+
+    private record Entrada(String etag, byte[] json, byte[] gzip) {
+        long tamanho() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    private static final long MAX_BYTES = Math.max(0, Configuracao.longo("respostas.cache.maxBytes", 8L * 1024 * 1024));
+    private static final int GZIP_MIN_BYTES = Configuracao.inteiro("respostas.cache.gzipMinBytes", 1024);
+    // Uma resposta enorme (ex.: listagem completa) não pode expulsar todas as outras
+    private static final long MAX_BYTES_ENTRADA = MAX_BYTES / 4;
+
+    // accessOrder = true: iteração do menos para o mais recentemente usado
+    private static final LinkedHashMap<String, Entrada> ENTRADAS = new LinkedHashMap<>(64, 0.75f, true);
+    private static long totalBytes;
+
+    private static final LongAdder ACERTOS = new LongAdder();
+    private static final LongAdder FALTAS = new LongAdder();
+    private static final LongAdder DESCARTES = new LongAdder();
+
+    private CacheRespostas() {}
+
+    // Rota + parâmetros: mesma URL, mesma resposta (para o mesmo ETag)
+    static String chave(Context ctx) {
+        var query = ctx.queryString();
+        return query == null || query.isEmpty() ? ctx.path() : ctx.path() + "?" + query;
+    }
+
+    /** Responder do cache se houver entrada com este ETag; false = gerar a resposta. */
+    static boolean responder(Context ctx, String chave, String etag) {
+        Entrada entrada;
+        synchronized (ENTRADAS) {
+            entrada = ENTRADAS.get(chave);
+            if (entrada != null && !entrada.etag().equals(etag)) {
+                // Gerada antes de uma escrita: não serve mais
+                remover(chave);
+                entrada = null;
+            }
+        }
+        if (entrada == null) {
+            FALTAS.increment();
+            return false;
+        }
+        ACERTOS.increment();
+        escrever(ctx, entrada);
+        return true;
+    }
+
+    /** Serializar a resposta, guardá-la (se couber) e enviá-la. */
+    static void guardarEResponder(Context ctx, String chave, String etag, Object resposta) {
+        var json = ctx.jsonMapper().toJsonString(resposta, resposta.getClass()).getBytes(StandardCharsets.UTF_8);
+        var entrada = new Entrada(etag, json, json.length >= GZIP_MIN_BYTES ? gzip(json) : null);
+        if (entrada.tamanho() <= MAX_BYTES_ENTRADA) {
+            synchronized (ENTRADAS) {
+                remover(chave);
+                ENTRADAS.put(chave, entrada);
+                totalBytes += entrada.tamanho();
+                var iterador = ENTRADAS.entrySet().iterator();
+                while (totalBytes > MAX_BYTES && iterador.hasNext()) {
+                    totalBytes -= iterador.next().getValue().tamanho();
+                    iterador.remove();
+                    DESCARTES.increment();
+                }
+            }
+        }
+        escrever(ctx, entrada);
+    }
+
+    // Chamado com o lock de ENTRADAS
+    private static void remover(String chave) {
+        var anterior = ENTRADAS.remove(chave);
+        if (anterior != null) totalBytes -= anterior.tamanho();
+    }
+
+    private static void escrever(Context ctx, Entrada entrada) {
+        ctx.contentType("application/json");
+        ctx.header("Vary", "Accept-Encoding");
+        var aceita = ctx.header("Accept-Encoding");
+        if (entrada.gzip() != null && aceita != null && aceita.contains("gzip")) {
+            // Content-Encoding já definido: o Javalin não comprime de novo
+            ctx.header("Content-Encoding", "gzip");
+            ctx.result(entrada.gzip());
+        } else {
+            ctx.result(entrada.json());
+        }
+    }
+
+    private static byte[] gzip(byte[] dados) {
+        var saida = new ByteArrayOutputStream(dados.length / 4 + 64);
+        try (var gz = new GZIPOutputStream(saida)) {
+            gz.write(dados);
+        } catch (IOException e) {
+            return null; // em memória não acontece; sem a versão gzip, serve o JSON puro
+        }
+        return saida.toByteArray();
+    }
+
+    static Map<String, Object> estatisticas() {
+        var dados = new LinkedHashMap<String, Object>();
+        synchronized (ENTRADAS) {
+            dados.put("entradas", ENTRADAS.size());
+            dados.put("bytes", totalBytes);
+        }
+        dados.put("maxBytes", MAX_BYTES);
+        dados.put("acertos", ACERTOS.sum());
+        dados.put("faltas", FALTAS.sum());
+        dados.put("descartesLru", DESCARTES.sum());
+        return dados;
+    }
+}
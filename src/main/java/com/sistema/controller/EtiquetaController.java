@@ -3,6 +3,8 @@ package com.sistema.controller;
 import com.sistema.model.Etiqueta;
 import com.sistema.model.EtiquetaDTO;
 import com.sistema.repository.EtiquetaRepository;
+import com.sistema.repository.NotaRepository;
+import com.sistema.service.CanalEventos;
 import io.javalin.http.Context;
 
 import java.sql.SQLException;
@@ -14,6 +16,11 @@ public class EtiquetaController {
     private final EtiquetaRepository repository = new EtiquetaRepository();
 
     public void listar(Context ctx) {
+        // Contadores de notas por etiqueta: depende também das notas
+        var etag = RespostaCondicional.etag(EtiquetaRepository.versaoCache(), NotaRepository.versao());
+        if (RespostaCondicional.naoModificado(ctx, etag)) return;
+        var chave = CacheRespostas.chave(ctx);
+        if (CacheRespostas.responder(ctx, chave, etag)) return;
         try {
             List<Etiqueta> etiquetas = repository.buscarTodos();
             Map<Long, Integer> contadores = repository.contarNotasPorTodasEtiquetas();
@@ -25,7 +32,7 @@ public class EtiquetaController {
                 dtos.add(new EtiquetaDTO(etiqueta, contador));
             }
 
-            ctx.json(Map.of(
+            CacheRespostas.guardarEResponder(ctx, chave, etag, Map.of(
                 "sucesso", true,
                 "dados", dtos
             ));
@@ -120,6 +127,8 @@ public class EtiquetaController {
             Long id = Long.parseLong(ctx.pathParam("id"));
             boolean ok = repository.deletar(id);
             if (ok) {
+                // ON DELETE CASCADE: as notas da etiqueta sumiram junto
+                CanalEventos.publicar("notas.lote", Map.of("operacao", "exclusao-etiqueta", "etiquetaId", id));
                 ctx.json(Map.of("sucesso", true, "mensagem", "Etiqueta excluída"));
             } else {
                 ctx.status(404).json(Map.of("sucesso", false, "mensagem", "Etiqueta não encontrada"));
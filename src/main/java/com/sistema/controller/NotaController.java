@@ -1,22 +1,117 @@
 package com.sistema.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.sistema.model.FiltroNotas;
+import com.sistema.model.LinhaImportacao;
+import com.sistema.model.NotaDTO;
+import com.sistema.model.ResultadoImportacaoDTO;
+import com.sistema.repository.EtiquetaRepository;
+import com.sistema.repository.NotaRepository;
+import com.sistema.repository.StatusNotaRepository;
 import com.sistema.service.NotaService;
 import io.javalin.http.Context;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class NotaController {
+    private static final JsonFactory FABRICA_JSON = new JsonFactory();
+
     private final NotaService service = new NotaService();
 
     public void listar(Context ctx) {
+        // Notas com nome de etiqueta/status e dias restantes (mudam com a data)
+        var etag = RespostaCondicional.etag(NotaRepository.versao(), EtiquetaRepository.versaoCache(),
+                StatusNotaRepository.versaoCache(), LocalDate.now());
+        if (RespostaCondicional.naoModificado(ctx, etag)) return;
+        // Primeira página (ou lista completa): resposta serializada guardada em cache
+        var primeiraPagina = ctx.queryParam("cursor") == null;
+        var chave = CacheRespostas.chave(ctx);
+        if (primeiraPagina && CacheRespostas.responder(ctx, chave, etag)) return;
         try {
-            var notas = service.listarTodas();
-            ctx.json(Map.of("sucesso", true, "dados", notas));
+            var filtro = lerFiltro(ctx);
+            var campos = lerCampos(ctx);
+            boolean comConteudo = campos == null || campos.contains("conteudo");
+
+            // Com limite ou cursor: paginação por chave; sem eles: lista completa (compatibilidade)
+            var limiteParam = ctx.queryParam("limite");
+            var cursor = ctx.queryParam("cursor");
+            if (limiteParam != null || cursor != null) {
+                var limite = limiteParam != null ? Integer.valueOf(limiteParam) : null;
+                var pagina = service.listarPagina(filtro, limite, cursor, comConteudo);
+                var resposta = new HashMap<String, Object>();
+                resposta.put("sucesso", true);
+                resposta.put("dados", projetar(pagina.getItens(), campos));
+                resposta.put("nextCursor", pagina.getProximoCursor());
+                if (primeiraPagina) CacheRespostas.guardarEResponder(ctx, chave, etag, resposta);
+                else ctx.json(resposta);
+                return;
+            }
+            var notas = filtro.isVazio() ? service.listarTodas(comConteudo) : service.listarFiltradas(filtro, comConteudo);
+            CacheRespostas.guardarEResponder(ctx, chave, etag, Map.of("sucesso", true, "dados", projetar(notas, campos)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            ctx.status(400).json(Map.of("sucesso", false, "mensagem", "Parâmetros de consulta inválidos: " + e.getMessage()));
         } catch (Exception e) {
             ctx.status(500).json(Map.of("sucesso", false, "mensagem", "Erro ao listar notas: " + e.getMessage()));
         }
     }
 
+    // GET /api/notas/busca?q=texto&limite=20&cursor=...
+    public void buscarTexto(Context ctx) {
+        try {
+            var q = ctx.queryParam("q");
+            if (q == null || q.isBlank()) {
+                ctx.status(400).json(Map.of("sucesso", false, "mensagem", "Informe o termo de busca (q)"));
+                return;
+            }
+            var limiteParam = ctx.queryParam("limite");
+            var limite = limiteParam != null ? Integer.valueOf(limiteParam) : null;
+            var pagina = service.buscarTexto(q, limite, ctx.queryParam("cursor"));
+            var resposta = new HashMap<String, Object>();
+            resposta.put("sucesso", true);
+            resposta.put("dados", pagina.getItens());
+            resposta.put("nextCursor", pagina.getProximoCursor());
+            ctx.json(resposta);
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Map.of("sucesso", false, "mensagem", "Parâmetros de busca inválidos: " + e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(500).json(Map.of("sucesso", false, "mensagem", "Erro ao buscar notas: " + e.getMessage()));
+        }
+    }
+
+    // GET /api/notas/exportar?formato=ndjson|json (aceita os mesmos filtros da listagem)
+    public void exportar(Context ctx) {
+        FiltroNotas filtro;
+        boolean ndjson;
+        try {
+            filtro = lerFiltro(ctx);
+            var formato = ctx.queryParam("formato");
+            ndjson = formato == null || formato.equalsIgnoreCase("ndjson");
+            if (!ndjson && !formato.equalsIgnoreCase("json")) {
+                ctx.status(400).json(Map.of("sucesso", false, "mensagem", "Formato inválido. Use ndjson ou json"));
+                return;
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            ctx.status(400).json(Map.of("sucesso", false, "mensagem", "Parâmetros de consulta inválidos: " + e.getMessage()));
+            return;
+        }
+
+        ctx.contentType(ndjson ? "application/x-ndjson; charset=utf-8" : "application/json; charset=utf-8");
+        ctx.header("Content-Disposition", "attachment; filename=\"notas." + (ndjson ? "ndjson" : "json") + "\"");
+        // A resposta já começou a ser enviada: em caso de erro só resta registrar e encerrar
+        try (var gen = FABRICA_JSON.createGenerator(ctx.outputStream())) {
+            service.exportar(filtro, gen, ndjson);
+        } catch (Exception e) {
+            System.err.println("Erro ao exportar notas: " + e.getMessage());
+        }
+    }
+
     public void buscarPorId(Context ctx) {
         try {
             var id = Long.parseLong(ctx.pathParam("id"));
@@ -56,6 +151,44 @@ public class NotaController {
         }
     }
 
+    // POST /api/notas/lote: array JSON no mesmo formato de POST /api/notas
+    public void importarLote(Context ctx) {
+        try {
+            var reqs = ctx.bodyAsClass(NotaRequest[].class);
+            if (reqs == null || reqs.length == 0) {
+                ctx.status(400).json(Map.of("sucesso", false, "mensagem", "Envie um array de notas"));
+                return;
+            }
+            var linhas = new ArrayList<LinhaImportacao>(reqs.length);
+            for (int i = 0; i < reqs.length; i++) {
+                var req = reqs[i];
+                if (req == null) req = new NotaRequest();
+                linhas.add(new LinhaImportacao(i + 1, req.titulo, req.etiquetaId, req.statusId, req.prazoFinal, req.conteudo));
+            }
+            responderImportacao(ctx, service.importar(linhas));
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Map.of("sucesso", false, "mensagem", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(500).json(Map.of("sucesso", false, "mensagem", "Erro ao importar notas: " + e.getMessage()));
+        }
+    }
+
+    // POST /api/notas/lote/csv: corpo text/csv com cabeçalho
+    public void importarCsv(Context ctx) {
+        try {
+            responderImportacao(ctx, service.importarCsv(ctx.body()));
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Map.of("sucesso", false, "mensagem", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(500).json(Map.of("sucesso", false, "mensagem", "Erro ao importar CSV: " + e.getMessage()));
+        }
+    }
+
+    private void responderImportacao(Context ctx, ResultadoImportacaoDTO resultado) {
+        var mensagem = resultado.getInseridas() + " de " + resultado.getRecebidas() + " notas importadas";
+        ctx.json(Map.of("sucesso", resultado.getErros().isEmpty(), "mensagem", mensagem, "dados", resultado));
+    }
+
     public void atualizar(Context ctx) {
         try {
             var id = Long.parseLong(ctx.pathParam("id"));
@@ -76,6 +209,42 @@ public class NotaController {
         }
     }
 
+    // PUT /api/notas/lote: { ids, statusId, etiquetaId, prazoFinal } e/ou filtros na query string
+    public void atualizarLote(Context ctx) {
+        try {
+            if (ctx.body().isBlank()) {
+                ctx.status(400).json(Map.of("sucesso", false, "mensagem", "Nenhuma alteração informada"));
+                return;
+            }
+            var req = ctx.bodyAsClass(LoteRequest.class);
+            var filtro = lerFiltro(ctx);
+            if (req.ids != null) filtro.getIds().addAll(req.ids);
+            var alteradas = service.atualizarLote(filtro, req.statusId, req.etiquetaId, req.prazoFinal);
+            ctx.json(Map.of("sucesso", true, "mensagem", alteradas + " nota(s) atualizada(s)", "dados", Map.of("alteradas", alteradas)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            ctx.status(400).json(Map.of("sucesso", false, "mensagem", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(500).json(Map.of("sucesso", false, "mensagem", "Erro ao atualizar notas: " + e.getMessage()));
+        }
+    }
+
+    // DELETE /api/notas/lote: { ids } no corpo e/ou filtros na query string (ex.: ?ids=1,2,3)
+    public void deletarLote(Context ctx) {
+        try {
+            var filtro = lerFiltro(ctx);
+            if (!ctx.body().isBlank()) {
+                var req = ctx.bodyAsClass(LoteRequest.class);
+                if (req.ids != null) filtro.getIds().addAll(req.ids);
+            }
+            var excluidas = service.deletarLote(filtro);
+            ctx.json(Map.of("sucesso", true, "mensagem", excluidas + " nota(s) excluída(s)", "dados", Map.of("excluidas", excluidas)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            ctx.status(400).json(Map.of("sucesso", false, "mensagem", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(500).json(Map.of("sucesso", false, "mensagem", "Erro ao excluir notas: " + e.getMessage()));
+        }
+    }
+
     public void deletar(Context ctx) {
         try {
             var id = Long.parseLong(ctx.pathParam("id"));
@@ -90,6 +259,72 @@ public class NotaController {
         }
     }
 
+    /**
+     * Filtros da consulta: ids, status e etiqueta aceitam lista (status=1,2 ou status=1&status=2),
+     * datas em ISO yyyy-MM-dd (prazoDe, prazoAte, criadoDe, criadoAte) e titulo como prefixo.
+     */
+    private FiltroNotas lerFiltro(Context ctx) {
+        var filtro = new FiltroNotas();
+        filtro.setIds(lerIds(ctx, "ids"));
+        filtro.setStatusIds(lerIds(ctx, "status"));
+        filtro.setEtiquetaIds(lerIds(ctx, "etiqueta"));
+        filtro.setPrazoDe(lerData(ctx, "prazoDe"));
+        filtro.setPrazoAte(lerData(ctx, "prazoAte"));
+        filtro.setCriadoDe(lerData(ctx, "criadoDe"));
+        filtro.setCriadoAte(lerData(ctx, "criadoAte"));
+        var titulo = ctx.queryParam("titulo");
+        if (titulo != null && !titulo.isBlank()) filtro.setTituloPrefixo(titulo.trim());
+        return filtro;
+    }
+
+    /**
+     * Campos da resposta: fields=id,titulo,prazoFinal ou resumo=true (todos menos o conteúdo).
+     * null = representação completa. Sem "conteudo", a coluna nem é lida do banco.
+     */
+    private Set<String> lerCampos(Context ctx) {
+        var fields = ctx.queryParam("fields");
+        if (fields != null && !fields.isBlank()) {
+            var campos = new LinkedHashSet<String>();
+            for (var parte : fields.split(",")) {
+                var campo = parte.trim();
+                if (campo.isEmpty()) continue;
+                if (!NotaDTO.CAMPOS.contains(campo)) {
+                    throw new IllegalArgumentException("Campo desconhecido: " + campo);
+                }
+                campos.add(campo);
+            }
+            return campos;
+        }
+        if ("true".equalsIgnoreCase(ctx.queryParam("resumo"))) {
+            var campos = new LinkedHashSet<>(NotaDTO.CAMPOS);
+            campos.remove("conteudo");
+            return campos;
+        }
+        return null;
+    }
+
+    private List<?> projetar(List<NotaDTO> notas, Set<String> campos) {
+        if (campos == null) return notas;
+        var lista = new ArrayList<Map<String, Object>>(notas.size());
+        for (var nota : notas) lista.add(nota.projetar(campos));
+        return lista;
+    }
+
+    private Set<Long> lerIds(Context ctx, String nome) {
+        var ids = new LinkedHashSet<Long>();
+        for (var valor : ctx.queryParams(nome)) {
+            for (var parte : valor.split(",")) {
+                if (!parte.isBlank()) ids.add(Long.parseLong(parte.trim()));
+            }
+        }
+        return ids;
+    }
+
+    private LocalDate lerData(Context ctx, String nome) {
+        var valor = ctx.queryParam(nome);
+        return valor == null || valor.isBlank() ? null : LocalDate.parse(valor.trim());
+    }
+
     // DTO de request
     public static class NotaRequest {
         public String titulo;
@@ -98,4 +333,12 @@ public class NotaController {
         public String prazoFinal; // ISO yyyy-MM-dd
         public String conteudo;
     }
+
+    // Operações em massa: campos nulos não são alterados
+    public static class LoteRequest {
+        public List<Long> ids;
+        public Long statusId;
+        public Long etiquetaId;
+        public String prazoFinal; // ISO yyyy-MM-dd
+    }
 }
\ No newline at end of file
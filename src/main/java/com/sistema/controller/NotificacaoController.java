@@ -1,16 +1,28 @@
 package com.sistema.controller;
 
 import io.javalin.http.Context;
+import io.javalin.http.sse.SseClient;
+import com.sistema.service.CanalEventos;
 import com.sistema.service.NotificacaoService;
+import com.sistema.repository.EtiquetaRepository;
+import com.sistema.repository.StatusNotaRepository;
+import java.time.LocalDate;
 import java.util.Map;
 
 public class NotificacaoController {
     private final NotificacaoService notificacaoService = new NotificacaoService();
 
     public void gerarAlertas(Context ctx) {
+        // Versão do índice de alertas (muda depois dos baldes, não da escrita no banco);
+        // os níveis dependem dos dias restantes: a data entra no ETag
+        var etag = RespostaCondicional.etag(NotificacaoService.versaoAlertas(), EtiquetaRepository.versaoCache(),
+                StatusNotaRepository.versaoCache(), LocalDate.now());
+        if (RespostaCondicional.naoModificado(ctx, etag)) return;
+        var chave = CacheRespostas.chave(ctx);
+        if (CacheRespostas.responder(ctx, chave, etag)) return;
         try {
             var alertas = notificacaoService.gerarAlertas();
-            ctx.json(Map.of("sucesso", true, "dados", alertas));
+            CacheRespostas.guardarEResponder(ctx, chave, etag, Map.of("sucesso", true, "dados", alertas));
         } catch (Exception e) {
             ctx.status(500).json(Map.of(
                 "sucesso", false,
@@ -18,4 +30,9 @@ public class NotificacaoController {
             ));
         }
     }
-}
\ No newline at end of file
+
+    // GET /api/eventos - Stream SSE de alterações de notas/usuários e alertas (autenticado por cookie)
+    public void eventos(SseClient client) {
+        CanalEventos.conectar(client);
+    }
+}
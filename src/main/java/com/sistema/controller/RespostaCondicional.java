@@ -0,0 +1,50 @@
+package com.sistema.controller;
+
+import io.javalin.http.Context;
+
+/**
+ * GET condicional: ETag forte derivado das versões das tabelas envolvidas.
+ *
+ * As versões ficam em memória e só mudam depois de uma escrita confirmada, então
+ * comparar o If-None-Match não custa acesso ao banco. O instante de partida entra
+ * no ETag porque as versões recomeçam do zero a cada inicialização.
+ */
+final class RespostaCondicional {
+
+    private static final String INSTANCIA = Long.toString(System.currentTimeMillis(), 36);
+
+    private RespostaCondicional() {}
+
+    // Partes = versões (e o que mais mudar a resposta, como a data para dias restantes)
+    static String etag(Object... partes) {
+        var sb = new StringBuilder("\"").append(INSTANCIA);
+        for (var parte : partes) sb.append('-').append(parte);
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Define o ETag da resposta e, se o cliente já tem essa versão, responde 304.
+     * Deve ser chamado antes de qualquer leitura: versões lidas primeiro garantem que
+     * uma escrita concorrente nunca fica escondida atrás de um ETag antigo.
+     */
+    static boolean naoModificado(Context ctx, String etag) {
+        ctx.header("ETag", etag);
+        // Resposta autenticada: só o navegador guarda, sempre revalidando
+        ctx.header("Cache-Control", "private, no-cache");
+        var ifNoneMatch = ctx.header("If-None-Match");
+        if (ifNoneMatch == null || !casa(ifNoneMatch, etag)) return false;
+        ctx.status(304);
+        return true;
+    }
+
+    // Lista separada por vírgulas; If-None-Match usa comparação fraca (ignora W/)
+    private static boolean casa(String ifNoneMatch, String etag) {
+        for (var candidato : ifNoneMatch.split(",")) {
+            var valor = candidato.trim();
+            if (valor.equals("*")) return true;
+            if (valor.startsWith("W/")) valor = valor.substring(2);
+            if (valor.equals(etag)) return true;
+        }
+        return false;
+    }
+}
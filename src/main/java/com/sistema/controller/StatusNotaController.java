@@ -12,9 +12,13 @@ public class StatusNotaController {
     private final StatusNotaRepository repository = new StatusNotaRepository();
 
     public void listar(Context ctx) {
+        var etag = RespostaCondicional.etag(StatusNotaRepository.versaoCache());
+        if (RespostaCondicional.naoModificado(ctx, etag)) return;
+        var chave = CacheRespostas.chave(ctx);
+        if (CacheRespostas.responder(ctx, chave, etag)) return;
         try {
             List<StatusNota> status = repository.buscarTodos();
-            ctx.json(Map.of(
+            CacheRespostas.guardarEResponder(ctx, chave, etag, Map.of(
                 "sucesso", true,
                 "dados", status
             ));
@@ -1,6 +1,7 @@
 package com.sistema.controller;
 
 import com.sistema.model.UsuarioDTO;
+import com.sistema.config.HashSenhas;
 import com.sistema.service.UsuarioService;
 import io.javalin.http.Context;
 import java.util.Map;
@@ -78,6 +79,12 @@ public class UsuarioController {
                 "dados", usuario
             ));
             
+        } catch (HashSenhas.SobrecargaException e) {
+            ctx.header("Retry-After", String.valueOf(e.getRetryAfterSegundos()));
+            ctx.status(503).json(Map.of(
+                "sucesso", false,
+                "mensagem", e.getMessage()
+            ));
         } catch (IllegalArgumentException e) {
             ctx.status(400).json(Map.of(
                 "sucesso", false,
@@ -129,6 +136,12 @@ public class UsuarioController {
                 ));
             }
 
+        } catch (HashSenhas.SobrecargaException e) {
+            ctx.header("Retry-After", String.valueOf(e.getRetryAfterSegundos()));
+            ctx.status(503).json(Map.of(
+                "sucesso", false,
+                "mensagem", e.getMessage()
+            ));
         } catch (IllegalArgumentException e) {
             ctx.status(400).json(Map.of(
                 "sucesso", false,
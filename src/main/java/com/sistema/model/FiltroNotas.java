@@ -0,0 +1,55 @@
+package com.sistema.model;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Critérios combináveis para consulta de notas.
+ * Todos são opcionais; os preenchidos são combinados com AND na consulta SQL.
+ */
+public class FiltroNotas {
+    private Set<Long> ids = new LinkedHashSet<>();
+    private Set<Long> statusIds = new LinkedHashSet<>();
+    private Set<Long> etiquetaIds = new LinkedHashSet<>();
+    private LocalDate prazoDe;       // inclusivo
+    private LocalDate prazoAte;      // inclusivo
+    private LocalDate criadoDe;      // inclusivo (data local)
+    private LocalDate criadoAte;     // inclusivo (data local)
+    private String tituloPrefixo;    // sem diferenciar maiúsculas/minúsculas
+
+    public FiltroNotas() {}
+
+    // Nenhum critério preenchido
+    public boolean isVazio() {
+        return ids.isEmpty() && statusIds.isEmpty() && etiquetaIds.isEmpty()
+                && prazoDe == null && prazoAte == null
+                && criadoDe == null && criadoAte == null
+                && (tituloPrefixo == null || tituloPrefixo.isEmpty());
+    }
+
+    // Getters e Setters
+    public Set<Long> getIds() { return ids; }
+    public void setIds(Set<Long> ids) { this.ids = ids != null ? ids : new LinkedHashSet<>(); }
+
+    public Set<Long> getStatusIds() { return statusIds; }
+    public void setStatusIds(Set<Long> statusIds) { this.statusIds = statusIds != null ? statusIds : new LinkedHashSet<>(); }
+
+    public Set<Long> getEtiquetaIds() { return etiquetaIds; }
+    public void setEtiquetaIds(Set<Long> etiquetaIds) { this.etiquetaIds = etiquetaIds != null ? etiquetaIds : new LinkedHashSet<>(); }
+
+    public LocalDate getPrazoDe() { return prazoDe; }
+    public void setPrazoDe(LocalDate prazoDe) { this.prazoDe = prazoDe; }
+
+    public LocalDate getPrazoAte() { return prazoAte; }
+    public void setPrazoAte(LocalDate prazoAte) { this.prazoAte = prazoAte; }
+
+    public LocalDate getCriadoDe() { return criadoDe; }
+    public void setCriadoDe(LocalDate criadoDe) { this.criadoDe = criadoDe; }
+
+    public LocalDate getCriadoAte() { return criadoAte; }
+    public void setCriadoAte(LocalDate criadoAte) { this.criadoAte = criadoAte; }
+
+    public String getTituloPrefixo() { return tituloPrefixo; }
+    public void setTituloPrefixo(String tituloPrefixo) { this.tituloPrefixo = tituloPrefixo; }
+}
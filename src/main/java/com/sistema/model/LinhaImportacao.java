@@ -0,0 +1,44 @@
+package com.sistema.model;
+
+/**
+ * Uma nota recebida na importação em lote, ainda sem validação.
+ * linha = posição no arquivo/array de origem (usada no relatório de erros).
+ */
+public class LinhaImportacao {
+    private int linha;
+    private String titulo;
+    private Long etiquetaId;
+    private Long statusId;
+    private String prazoFinal;  // ISO yyyy-MM-dd ou dd/MM/yyyy
+    private String conteudo;
+
+    public LinhaImportacao() {}
+
+    public LinhaImportacao(int linha, String titulo, Long etiquetaId, Long statusId, String prazoFinal, String conteudo) {
+        this.linha = linha;
+        this.titulo = titulo;
+        this.etiquetaId = etiquetaId;
+        this.statusId = statusId;
+        this.prazoFinal = prazoFinal;
+        this.conteudo = conteudo;
+    }
+
+    // Getters e Setters
+    public int getLinha() { return linha; }
+    public void setLinha(int linha) { this.linha = linha; }
+
+    public String getTitulo() { return titulo; }
+    public void setTitulo(String titulo) { this.titulo = titulo; }
+
+    public Long getEtiquetaId() { return etiquetaId; }
+    public void setEtiquetaId(Long etiquetaId) { this.etiquetaId = etiquetaId; }
+
+    public Long getStatusId() { return statusId; }
+    public void setStatusId(Long statusId) { this.statusId = statusId; }
+
+    public String getPrazoFinal() { return prazoFinal; }
+    public void setPrazoFinal(String prazoFinal) { this.prazoFinal = prazoFinal; }
+
+    public String getConteudo() { return conteudo; }
+    public void setConteudo(String conteudo) { this.conteudo = conteudo; }
+}
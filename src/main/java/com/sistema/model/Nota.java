@@ -2,6 +2,7 @@ package com.sistema.model;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 public class Nota {
     private Long id;
@@ -9,6 +10,7 @@ public class Nota {
     private Long statusId;
     private String titulo;
     private String conteudo;
+    private Supplier<String> conteudoAdiado; // descomprime só no primeiro acesso
     private LocalDateTime dataCriacao;
     private LocalDateTime dataAtualizacao;
     private LocalDate prazoFinal; // LocalDate para armazenar apenas data
@@ -38,8 +40,21 @@ public class Nota {
     public String getTitulo() { return titulo; }
     public void setTitulo(String titulo) { this.titulo = titulo; }
 
-    public String getConteudo() { return conteudo; }
-    public void setConteudo(String conteudo) { this.conteudo = conteudo; }
+    public String getConteudo() {
+        if (conteudoAdiado != null) {
+            conteudo = conteudoAdiado.get();
+            conteudoAdiado = null;
+        }
+        return conteudo;
+    }
+    public void setConteudo(String conteudo) {
+        this.conteudo = conteudo;
+        this.conteudoAdiado = null;
+    }
+    public void setConteudoAdiado(Supplier<String> conteudoAdiado) {
+        this.conteudo = null;
+        this.conteudoAdiado = conteudoAdiado;
+    }
 
     public LocalDateTime getDataCriacao() { return dataCriacao; }
     public void setDataCriacao(LocalDateTime dataCriacao) { this.dataCriacao = dataCriacao; }
@@ -57,7 +72,7 @@ public class Nota {
                 ", etiquetaId=" + etiquetaId +
                 ", statusId=" + statusId +
                 ", titulo='" + titulo + '\'' +
-                ", conteudo='" + conteudo + '\'' +
+                ", conteudo='" + getConteudo() + '\'' +
                 ", dataCriacao=" + dataCriacao +
                 ", dataAtualizacao=" + dataAtualizacao +
                 ", prazoFinal=" + prazoFinal +
@@ -3,8 +3,17 @@ package com.sistema.model;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class NotaDTO {
+    // Nomes aceitos em fields= (mesma ordem da serialização completa)
+    public static final List<String> CAMPOS = List.of(
+            "id", "titulo", "conteudo", "dataCriacao", "dataAtualizacao", "prazoFinal",
+            "etiquetaId", "etiquetaNome", "statusId", "statusNome", "statusCor", "diasRestantes");
+
     private Long id;
     private String titulo;
     private String conteudo;
@@ -53,6 +62,29 @@ public class NotaDTO {
                 : null;
     }
 
+    // Apenas os campos pedidos (fields=), na ordem de CAMPOS
+    public Map<String, Object> projetar(Set<String> campos) {
+        var mapa = new LinkedHashMap<String, Object>();
+        for (var campo : CAMPOS) {
+            if (!campos.contains(campo)) continue;
+            mapa.put(campo, switch (campo) {
+                case "id" -> id;
+                case "titulo" -> titulo;
+                case "conteudo" -> conteudo;
+                case "dataCriacao" -> dataCriacao;
+                case "dataAtualizacao" -> dataAtualizacao;
+                case "prazoFinal" -> prazoFinal;
+                case "etiquetaId" -> etiquetaId;
+                case "etiquetaNome" -> etiquetaNome;
+                case "statusId" -> statusId;
+                case "statusNome" -> statusNome;
+                case "statusCor" -> statusCor;
+                default -> diasRestantes;
+            });
+        }
+        return mapa;
+    }
+
     // Getters e Setters completos
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,25 @@
+package com.sistema.model;
+
+import java.util.List;
+
+/**
+ * Página de resultados com cursor para a próxima (paginação por chave).
+ * proximoCursor é null quando não há mais registros.
+ */
+public class Pagina<T> {
+    private List<T> itens;
+    private String proximoCursor;
+
+    public Pagina() {}
+
+    public Pagina(List<T> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() { return itens; }
+    public void setItens(List<T> itens) { this.itens = itens; }
+
+    public String getProximoCursor() { return proximoCursor; }
+    public void setProximoCursor(String proximoCursor) { this.proximoCursor = proximoCursor; }
+}
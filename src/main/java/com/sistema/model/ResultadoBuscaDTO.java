@@ -0,0 +1,34 @@
+package com.sistema.model;
+
+/**
+ * Resultado da busca textual: a nota (sem o conteúdo completo),
+ * o título com os termos destacados, um trecho do conteúdo e a relevância (bm25).
+ */
+public class ResultadoBuscaDTO {
+    private NotaDTO nota;
+    private String tituloDestacado;  // termos entre <mark></mark>
+    private String trecho;           // snippet do conteúdo com os termos destacados
+    private Double relevancia;       // bm25: quanto menor, mais relevante
+
+    public ResultadoBuscaDTO() {}
+
+    public ResultadoBuscaDTO(NotaDTO nota, String tituloDestacado, String trecho, Double relevancia) {
+        this.nota = nota;
+        this.tituloDestacado = tituloDestacado;
+        this.trecho = trecho;
+        this.relevancia = relevancia;
+    }
+
+    // Getters e Setters
+    public NotaDTO getNota() { return nota; }
+    public void setNota(NotaDTO nota) { this.nota = nota; }
+
+    public String getTituloDestacado() { return tituloDestacado; }
+    public void setTituloDestacado(String tituloDestacado) { this.tituloDestacado = tituloDestacado; }
+
+    public String getTrecho() { return trecho; }
+    public void setTrecho(String trecho) { this.trecho = trecho; }
+
+    public Double getRelevancia() { return relevancia; }
+    public void setRelevancia(Double relevancia) { this.relevancia = relevancia; }
+}
@@ -0,0 +1,48 @@
+package com.sistema.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumo da importação em lote: quantas linhas chegaram, quantas foram
+ * gravadas e o motivo de cada linha rejeitada.
+ */
+public class ResultadoImportacaoDTO {
+    private int recebidas;
+    private int inseridas;
+    private List<ErroLinha> erros = new ArrayList<>();
+
+    public ResultadoImportacaoDTO() {}
+
+    public void adicionarErro(int linha, String mensagem) {
+        erros.add(new ErroLinha(linha, mensagem));
+    }
+
+    // Getters e Setters
+    public int getRecebidas() { return recebidas; }
+    public void setRecebidas(int recebidas) { this.recebidas = recebidas; }
+
+    public int getInseridas() { return inseridas; }
+    public void setInseridas(int inseridas) { this.inseridas = inseridas; }
+
+    public List<ErroLinha> getErros() { return erros; }
+    public void setErros(List<ErroLinha> erros) { this.erros = erros; }
+
+    public static class ErroLinha {
+        private int linha;
+        private String mensagem;
+
+        public ErroLinha() {}
+
+        public ErroLinha(int linha, String mensagem) {
+            this.linha = linha;
+            this.mensagem = mensagem;
+        }
+
+        public int getLinha() { return linha; }
+        public void setLinha(int linha) { this.linha = linha; }
+
+        public String getMensagem() { return mensagem; }
+        public void setMensagem(String mensagem) { this.mensagem = mensagem; }
+    }
+}
@@ -0,0 +1,143 @@
+package com.sistema.repository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache em memória de tabelas de referência pequenas (etiquetas, status).
+ *
+ * Copy-on-write: os leitores pegam o instantâneo atual (campo volatile) e fazem
+ * só leitura de mapa, sem lock. Cada alteração monta um instantâneo novo e o
+ * publica de uma vez. Depois de uma escrita no banco, o repositório chama
+ * {@link #atualizarItem}, que relê a linha já gravada, então o cache segue
+ * sempre o último estado confirmado mesmo com escritas concorrentes.
+ *
+ * As instâncias devolvidas são compartilhadas: não devem ser alteradas.
+ */
+final class CacheReferencia<T> {
+
+    @FunctionalInterface
+    interface CarregadorTodos<T> {
+        List<T> carregar() throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface CarregadorItem<T> {
+        Optional<T> carregar(Long id) throws SQLException;
+    }
+
+    private record Instantaneo<T>(Map<Long, T> porId, List<T> ordenados) {}
+
+    private final String nome;
+    private final Function<T, Long> chave;
+    private final Comparator<T> ordem;
+    private final CarregadorTodos<T> carregadorTodos;
+    private final CarregadorItem<T> carregadorItem;
+
+    private volatile Instantaneo<T> atual; // null = ainda não carregado
+
+    // Incrementada a cada alteração publicada: quem deriva dados da tabela detecta mudança
+    private final AtomicLong versao = new AtomicLong();
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder atualizacoes = new LongAdder();
+
+    CacheReferencia(String nome, Function<T, Long> chave, Comparator<T> ordem,
+                    CarregadorTodos<T> carregadorTodos, CarregadorItem<T> carregadorItem) {
+        this.nome = nome;
+        this.chave = chave;
+        this.ordem = ordem;
+        this.carregadorTodos = carregadorTodos;
+        this.carregadorItem = carregadorItem;
+    }
+
+    List<T> todos() throws SQLException {
+        return instantaneo().ordenados();
+    }
+
+    // A tabela inteira está no cache: id ausente = registro inexistente
+    Optional<T> porId(Long id) throws SQLException {
+        return Optional.ofNullable(instantaneo().porId().get(id));
+    }
+
+    // (Re)carregar a tabela inteira
+    synchronized void carregar() throws SQLException {
+        publicar(carregadorTodos.carregar());
+    }
+
+    /**
+     * Reler a linha do banco e aplicar ao cache (inclusão, alteração ou exclusão).
+     * Chamado depois de a escrita ser confirmada: se a releitura falhar, o cache é
+     * descartado e recarregado no próximo acesso, sem propagar erro para quem escreveu.
+     */
+    synchronized void atualizarItem(Long id) {
+        atualizacoes.increment();
+        if (atual == null) { // será carregado no próximo acesso
+            versao.incrementAndGet();
+            return;
+        }
+        try {
+            var itens = new ArrayList<>(atual.porId().values());
+            itens.removeIf(item -> id.equals(chave.apply(item)));
+            carregadorItem.carregar(id).ifPresent(itens::add);
+            publicar(itens);
+        } catch (SQLException e) {
+            System.err.println("⚠️  Cache de " + nome + " descartado: " + e.getMessage());
+            atual = null;
+            versao.incrementAndGet();
+        }
+    }
+
+    private Instantaneo<T> instantaneo() throws SQLException {
+        var snapshot = atual;
+        if (snapshot != null) {
+            acertos.increment();
+            return snapshot;
+        }
+        faltas.increment();
+        synchronized (this) {
+            if (atual == null) carregar();
+            return atual;
+        }
+    }
+
+    long versao() {
+        return versao.get();
+    }
+
+    private void publicar(List<T> itens) {
+        var ordenados = new ArrayList<>(itens);
+        ordenados.sort(ordem);
+        var porId = new HashMap<Long, T>(ordenados.size() * 2);
+        for (var item : ordenados) porId.put(chave.apply(item), item);
+        atual = new Instantaneo<>(Collections.unmodifiableMap(porId), List.copyOf(ordenados));
+        versao.incrementAndGet();
+    }
+
+    Map<String, Object> estatisticas() {
+        var snapshot = atual;
+        long hits = acertos.sum();
+        long misses = faltas.sum();
+        var dados = new LinkedHashMap<String, Object>();
+        dados.put("nome", nome);
+        dados.put("carregado", snapshot != null);
+        dados.put("itens", snapshot != null ? snapshot.ordenados().size() : 0);
+        dados.put("acertos", hits);
+        dados.put("faltas", misses);
+        dados.put("taxaAcerto", hits + misses == 0 ? 0.0 : hits / (double) (hits + misses));
+        dados.put("atualizacoes", atualizacoes.sum());
+        dados.put("versao", versao.get());
+        return dados;
+    }
+}
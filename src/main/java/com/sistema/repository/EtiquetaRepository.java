@@ -6,7 +6,36 @@ import java.sql.*;
 import java.util.*;
 
 public class EtiquetaRepository {
+    // Cache compartilhado por todas as instâncias do repositório
+    private static final CacheReferencia<Etiqueta> CACHE = new CacheReferencia<>(
+        "etiquetas", Etiqueta::getId, Comparator.comparing(Etiqueta::getNome),
+        EtiquetaRepository::lerTodos, EtiquetaRepository::lerPorId
+    );
+
+    // Carregar o cache na inicialização
+    public static void carregarCache() throws SQLException {
+        CACHE.carregar();
+    }
+
+    public static Map<String, Object> estatisticasCache() {
+        return CACHE.estatisticas();
+    }
+
+    // Muda a cada inclusão/alteração/exclusão confirmada
+    public static long versaoCache() {
+        return CACHE.versao();
+    }
+
+    // Leitura do cache (sem acesso ao banco); lista imutável
     public List<Etiqueta> buscarTodos() throws SQLException {
+        return CACHE.todos();
+    }
+
+    public Optional<Etiqueta> buscarPorId(Long id) throws SQLException {
+        return CACHE.porId(id);
+    }
+
+    private static List<Etiqueta> lerTodos() throws SQLException {
         var resultado = new ArrayList<Etiqueta>();
         try (var conn = DatabaseConfig.getConnection();
              var stmt = conn.prepareStatement("SELECT id, nome, data_criacao FROM etiquetas ORDER BY nome ASC")) {
@@ -18,7 +47,7 @@ public class EtiquetaRepository {
         return resultado;
     }
 
-    public Optional<Etiqueta> buscarPorId(Long id) throws SQLException {
+    private static Optional<Etiqueta> lerPorId(Long id) throws SQLException {
         try (var conn = DatabaseConfig.getConnection();
              var stmt = conn.prepareStatement("SELECT id, nome, data_criacao FROM etiquetas WHERE id = ?")) {
             stmt.setLong(1, id);
@@ -29,33 +58,44 @@ public class EtiquetaRepository {
     }
 
     public Etiqueta salvar(Etiqueta e) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement(
-                     "INSERT INTO etiquetas (nome) VALUES (?)",
-                     Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, e.getNome());
-            stmt.executeUpdate();
-            var rs = stmt.getGeneratedKeys();
-            if (rs.next()) e.setId(rs.getLong(1));
+        var id = DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement(
+                    "INSERT INTO etiquetas (nome) VALUES (?)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, e.getNome());
+                stmt.executeUpdate();
+                var rs = stmt.getGeneratedKeys();
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        });
+        if (id != null) {
+            e.setId(id);
+            CACHE.atualizarItem(id);
         }
         return e;
     }
 
     public boolean atualizar(Etiqueta e) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement("UPDATE etiquetas SET nome = ? WHERE id = ?")) {
-            stmt.setString(1, e.getNome());
-            stmt.setLong(2, e.getId());
-            return stmt.executeUpdate() > 0;
-        }
+        boolean ok = DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement("UPDATE etiquetas SET nome = ? WHERE id = ?")) {
+                stmt.setString(1, e.getNome());
+                stmt.setLong(2, e.getId());
+                return stmt.executeUpdate() > 0;
+            }
+        });
+        if (ok) CACHE.atualizarItem(e.getId());
+        return ok;
     }
 
     public boolean deletar(Long id) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement("DELETE FROM etiquetas WHERE id = ?")) {
-            stmt.setLong(1, id);
-            return stmt.executeUpdate() > 0;
-        }
+        boolean ok = DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement("DELETE FROM etiquetas WHERE id = ?")) {
+                stmt.setLong(1, id);
+                return stmt.executeUpdate() > 0;
+            }
+        });
+        if (ok) CACHE.atualizarItem(id);
+        return ok;
     }
 
     /**
@@ -89,7 +129,7 @@ public class EtiquetaRepository {
         return contadores;
     }
 
-    private Etiqueta mapear(ResultSet rs) throws SQLException {
+    private static Etiqueta mapear(ResultSet rs) throws SQLException {
         var e = new Etiqueta();
         e.setId(rs.getLong("id"));
         e.setNome(rs.getString("nome"));
@@ -1,26 +1,352 @@
 package com.sistema.repository;
 
+import com.sistema.config.CodecConteudo;
 import com.sistema.config.DatabaseConfig;
+import com.sistema.config.EscritorBanco;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.sistema.model.Etiqueta;
+import com.sistema.model.FiltroNotas;
 import com.sistema.model.Nota;
+import com.sistema.model.NotaDTO;
+import com.sistema.model.Pagina;
+import com.sistema.model.StatusNota;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class NotaRepository {
+    private static final DateTimeFormatter FORMATO_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Abaixo do limite de parâmetros por comando do SQLite (32766)
+    private static final int MAXIMO_IDS = 30_000;
+
+    // Incrementada depois de cada escrita em notas (ETags das listagens)
+    private static final AtomicLong VERSAO = new AtomicLong();
+
+    private static final String INSERT = "INSERT INTO notas (etiqueta_id, status_id, titulo, conteudo, conteudo_comprimido, "
+            + "conteudo_codec, prazo_final) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Projeções: a de resumo nem lê o conteúdo do disco (mapear aceita a coluna nula)
+    private static final String COLUNAS = "id, etiqueta_id, status_id, titulo, conteudo, conteudo_comprimido, conteudo_codec, "
+            + "data_criacao, data_atualizacao, prazo_final";
+    private static final String COLUNAS_DETALHADAS = "n.id, n.etiqueta_id, n.status_id, n.titulo, "
+            + "n.conteudo, n.conteudo_comprimido, n.conteudo_codec, n.data_criacao, n.data_atualizacao, n.prazo_final, "
+            + "e.nome AS etiqueta_nome, s.nome AS status_nome, s.cor_hex AS status_cor";
+    private static final String COLUNAS_DETALHADAS_RESUMO = "n.id, n.etiqueta_id, n.status_id, n.titulo, "
+            + "NULL AS conteudo, NULL AS conteudo_comprimido, NULL AS conteudo_codec, n.data_criacao, n.data_atualizacao, n.prazo_final, "
+            + "e.nome AS etiqueta_nome, s.nome AS status_nome, s.cor_hex AS status_cor";
+    // Nota com etiqueta e status em uma única consulta (chaves primárias: um lookup por linha)
+    private static final String DE_NOTAS_DETALHADAS = " FROM notas n"
+            + " LEFT JOIN etiquetas e ON e.id = n.etiqueta_id"
+            + " LEFT JOIN status_nota s ON s.id = n.status_id";
+
+    // Muda a cada inclusão/alteração/exclusão de nota (já confirmada no banco)
+    public static long versao() {
+        return VERSAO.get();
+    }
+
+    // Escrita que altera o que as consultas devolvem: versão incrementada só depois do commit
+    private static <T> T escrever(EscritorBanco.OperacaoEscrita<T> operacao) throws SQLException {
+        try {
+            return DatabaseConfig.escrever(operacao);
+        } finally {
+            VERSAO.incrementAndGet();
+        }
+    }
+
     public List<Nota> buscarTodos() throws SQLException {
         var lista = new ArrayList<Nota>();
         try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement("SELECT id, etiqueta_id, status_id, titulo, conteudo, data_criacao, data_atualizacao, prazo_final FROM notas ORDER BY data_criacao DESC")) {
+             var stmt = conn.prepareStatement("SELECT " + COLUNAS + " FROM notas ORDER BY data_criacao DESC")) {
             var rs = stmt.executeQuery();
             while (rs.next()) lista.add(mapear(rs));
         }
         return lista;
     }
 
+    /**
+     * Página de notas (já com etiqueta e status) da mais recente para a mais antiga.
+     * Usa paginação por chave (data_criacao, id) sobre o índice idx_notas_criacao,
+     * então o custo não cresce com a posição da página. cursor null = primeira página.
+     */
+    public Pagina<NotaDTO> buscarPagina(FiltroNotas filtro, String cursor, int limite, boolean comConteudo) throws SQLException {
+        var chave = decodificarCursor(cursor);
+        var params = new ArrayList<Object>();
+        var where = montarWhere(filtro, params, "n.");
+        if (chave != null) {
+            where.add("(n.data_criacao, n.id) < (?, ?)");
+            params.add(chave.dataCriacao());
+            params.add(chave.id());
+        }
+        // Um registro a mais só para saber se existe próxima página
+        params.add(limite + 1);
+        var sql = "SELECT " + colunasDetalhadas(comConteudo) + DE_NOTAS_DETALHADAS
+                + clausulaWhere(where)
+                + " ORDER BY n.data_criacao DESC, n.id DESC LIMIT ?";
+
+        var lista = new ArrayList<NotaDTO>();
+        String ultimaCriacao = null;
+        try (var conn = DatabaseConfig.getConnection();
+             var stmt = conn.prepareStatement(sql)) {
+            vincular(stmt, params);
+            var rs = stmt.executeQuery();
+            while (rs.next()) {
+                // Guardar a chave bruta da última nota que será devolvida
+                if (lista.size() == limite - 1) ultimaCriacao = rs.getString("data_criacao");
+                lista.add(mapearDetalhada(rs));
+            }
+        }
+        String proximo = null;
+        if (lista.size() > limite) {
+            lista.remove(limite);
+            proximo = codificarCursor(ultimaCriacao, lista.get(limite - 1).getId());
+        }
+        return new Pagina<>(lista, proximo);
+    }
+
+    // Todas as notas que atendem ao filtro, já com etiqueta e status (filtro vazio = todas)
+    public List<NotaDTO> buscar(FiltroNotas filtro, boolean comConteudo) throws SQLException {
+        var params = new ArrayList<Object>();
+        var sql = "SELECT " + colunasDetalhadas(comConteudo) + DE_NOTAS_DETALHADAS
+                + clausulaWhere(montarWhere(filtro, params, "n."))
+                + " ORDER BY n.data_criacao DESC, n.id DESC";
+        var lista = new ArrayList<NotaDTO>();
+        try (var conn = DatabaseConfig.getConnection();
+             var stmt = conn.prepareStatement(sql)) {
+            vincular(stmt, params);
+            var rs = stmt.executeQuery();
+            while (rs.next()) lista.add(mapearDetalhada(rs));
+        }
+        return lista;
+    }
+
+    // Só id e prazo das notas do filtro (agenda de prazos): sem JOIN nem conteúdo
+    public Map<Long, LocalDate> buscarPrazos(FiltroNotas filtro) throws SQLException {
+        var params = new ArrayList<Object>();
+        var sql = "SELECT id, prazo_final FROM notas"
+                + clausulaWhere(montarWhere(filtro, params, ""));
+        var prazos = new HashMap<Long, LocalDate>();
+        try (var conn = DatabaseConfig.getConnection();
+             var stmt = conn.prepareStatement(sql)) {
+            vincular(stmt, params);
+            var rs = stmt.executeQuery();
+            while (rs.next()) {
+                var prazo = rs.getDate("prazo_final");
+                if (prazo != null) prazos.put(rs.getLong("id"), prazo.toLocalDate());
+            }
+        }
+        return prazos;
+    }
+
+    /**
+     * Traduz o filtro em condições SQL parametrizadas (nunca concatena valores).
+     * Cada critério casa com um índice: status/etiqueta (idx_notas_status_prazo,
+     * idx_notas_etiqueta_criacao), prazo (idx_notas_prazo), título (idx_notas_titulo_nocase).
+     * prefixo qualifica as colunas quando a consulta tem JOIN (ex.: "n.").
+     */
+    private List<String> montarWhere(FiltroNotas filtro, List<Object> params, String prefixo) {
+        var where = new ArrayList<String>();
+        if (filtro == null) return where;
+
+        if (!filtro.getIds().isEmpty()) {
+            if (filtro.getIds().size() > MAXIMO_IDS) {
+                throw new IllegalArgumentException("Máximo de " + MAXIMO_IDS + " IDs por requisição");
+            }
+            where.add(prefixo + "id IN (" + marcadores(filtro.getIds().size()) + ")");
+            params.addAll(filtro.getIds());
+        }
+        if (!filtro.getStatusIds().isEmpty()) {
+            where.add(prefixo + "status_id IN (" + marcadores(filtro.getStatusIds().size()) + ")");
+            params.addAll(filtro.getStatusIds());
+        }
+        if (!filtro.getEtiquetaIds().isEmpty()) {
+            where.add(prefixo + "etiqueta_id IN (" + marcadores(filtro.getEtiquetaIds().size()) + ")");
+            params.addAll(filtro.getEtiquetaIds());
+        }
+        // prazo_final é gravado com setDate, então comparamos com o mesmo tipo
+        if (filtro.getPrazoDe() != null) {
+            where.add(prefixo + "prazo_final >= ?");
+            params.add(java.sql.Date.valueOf(filtro.getPrazoDe()));
+        }
+        if (filtro.getPrazoAte() != null) {
+            where.add(prefixo + "prazo_final <= ?");
+            params.add(java.sql.Date.valueOf(filtro.getPrazoAte()));
+        }
+        // data_criacao fica em UTC (CURRENT_TIMESTAMP); o filtro vem no horário de Brasília (UTC-3)
+        if (filtro.getCriadoDe() != null) {
+            where.add(prefixo + "data_criacao >= ?");
+            params.add(FORMATO_TIMESTAMP.format(filtro.getCriadoDe().atStartOfDay().plusHours(3)));
+        }
+        if (filtro.getCriadoAte() != null) {
+            where.add(prefixo + "data_criacao < ?");
+            params.add(FORMATO_TIMESTAMP.format(filtro.getCriadoAte().plusDays(1).atStartOfDay().plusHours(3)));
+        }
+        if (filtro.getTituloPrefixo() != null && !filtro.getTituloPrefixo().isEmpty()) {
+            where.add(prefixo + "titulo LIKE ? ESCAPE '\\'");
+            params.add(escaparLike(filtro.getTituloPrefixo()) + "%");
+        }
+        return where;
+    }
+
+    // Ocupa três parâmetros: conteudo, conteudo_comprimido, conteudo_codec
+    private static void vincularConteudo(PreparedStatement stmt, int indice, CodecConteudo.Codificado conteudo) throws SQLException {
+        stmt.setString(indice, conteudo.texto());
+        stmt.setBytes(indice + 1, conteudo.comprimido());
+        stmt.setString(indice + 2, conteudo.codec());
+    }
+
+    private static String colunasDetalhadas(boolean comConteudo) {
+        return comConteudo ? COLUNAS_DETALHADAS : COLUNAS_DETALHADAS_RESUMO;
+    }
+
+    private static String clausulaWhere(List<String> where) {
+        return where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where);
+    }
+
+    private static String marcadores(int quantidade) {
+        return String.join(", ", Collections.nCopies(quantidade, "?"));
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static void vincular(PreparedStatement stmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            stmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    /**
+     * Exporta as notas do filtro direto do ResultSet para o JsonGenerator, linha a linha.
+     * Nenhuma lista é montada: cada nota é escrita e descartada, então o uso de heap
+     * não depende do tamanho da tabela. ndjson = um objeto por linha; senão, array JSON.
+     */
+    public int exportar(FiltroNotas filtro, JsonGenerator gen, boolean ndjson) throws SQLException, IOException {
+        var params = new ArrayList<Object>();
+        var sql = "SELECT " + COLUNAS_DETALHADAS + DE_NOTAS_DETALHADAS
+                + clausulaWhere(montarWhere(filtro, params, "n."))
+                + " ORDER BY n.id";
+
+        var formatoDataHora = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        var formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        var hoje = LocalDate.now();
+        int total = 0;
+
+        if (ndjson) {
+            gen.setRootValueSeparator(new SerializedString("\n"));
+        } else {
+            gen.writeStartArray();
+        }
+        try (var conn = DatabaseConfig.getConnection();
+             var stmt = conn.prepareStatement(sql)) {
+            vincular(stmt, params);
+            var rs = stmt.executeQuery();
+            while (rs.next()) {
+                var n = mapear(rs);
+                gen.writeStartObject();
+                gen.writeNumberField("id", n.getId());
+                gen.writeStringField("titulo", n.getTitulo());
+                gen.writeStringField("conteudo", n.getConteudo());
+                gen.writeStringField("dataCriacao", n.getDataCriacao() != null ? n.getDataCriacao().format(formatoDataHora) : null);
+                gen.writeStringField("dataAtualizacao", n.getDataAtualizacao() != null ? n.getDataAtualizacao().format(formatoDataHora) : null);
+                gen.writeStringField("prazoFinal", n.getPrazoFinal() != null ? n.getPrazoFinal().format(formatoData) : null);
+                gen.writeNumberField("etiquetaId", n.getEtiquetaId());
+                gen.writeStringField("etiquetaNome", rs.getString("etiqueta_nome"));
+                gen.writeNumberField("statusId", n.getStatusId());
+                gen.writeStringField("statusNome", rs.getString("status_nome"));
+                gen.writeStringField("statusCor", rs.getString("status_cor"));
+                if (n.getPrazoFinal() != null) {
+                    gen.writeNumberField("diasRestantes", (int) ChronoUnit.DAYS.between(hoje, n.getPrazoFinal()));
+                } else {
+                    gen.writeNullField("diasRestantes");
+                }
+                gen.writeEndObject();
+                total++;
+            }
+        }
+        if (ndjson) {
+            if (total > 0) gen.writeRaw('\n');
+        } else {
+            gen.writeEndArray();
+        }
+        gen.flush();
+        return total;
+    }
+
+    // Ocorrência da busca textual (nota sem conteúdo + destaques + relevância bm25)
+    public record Ocorrencia(NotaDTO nota, String tituloDestacado, String trecho, double relevancia) {}
+
+    /**
+     * Busca textual no índice FTS5, ordenada por relevância (bm25, título pesa 10x).
+     * Os termos digitados viram frases entre aspas (sem sintaxe FTS vinda do usuário)
+     * e o último termo casa por prefixo. Paginação por deslocamento, via cursor opaco.
+     */
+    public Pagina<Ocorrencia> buscarTexto(String texto, String cursor, int limite) throws SQLException {
+        var consulta = montarConsultaFts(texto);
+        if (consulta == null) return new Pagina<>(List.of(), null);
+        int deslocamento = decodificarDeslocamento(cursor);
+
+        var lista = new ArrayList<Ocorrencia>();
+        try (var conn = DatabaseConfig.getConnection();
+             var stmt = conn.prepareStatement("""
+                 SELECT n.id, n.etiqueta_id, n.status_id, n.titulo,
+                        NULL AS conteudo, NULL AS conteudo_comprimido, NULL AS conteudo_codec,
+                        n.data_criacao, n.data_atualizacao, n.prazo_final,
+                        e.nome AS etiqueta_nome, s.nome AS status_nome, s.cor_hex AS status_cor,
+                        highlight(notas_fts, 0, '<mark>', '</mark>') AS titulo_destacado,
+                        snippet(notas_fts, 1, '<mark>', '</mark>', '…', 24) AS trecho,
+                        bm25(notas_fts, 10.0, 1.0) AS relevancia
+                 FROM notas_fts
+                 JOIN notas n ON n.id = notas_fts.rowid
+                 LEFT JOIN etiquetas e ON e.id = n.etiqueta_id
+                 LEFT JOIN status_nota s ON s.id = n.status_id
+                 WHERE notas_fts MATCH ?
+                 ORDER BY relevancia
+                 LIMIT ? OFFSET ?
+                 """)) {
+            stmt.setString(1, consulta);
+            stmt.setInt(2, limite + 1);
+            stmt.setInt(3, deslocamento);
+            var rs = stmt.executeQuery();
+            while (rs.next()) {
+                lista.add(new Ocorrencia(mapearDetalhada(rs), rs.getString("titulo_destacado"),
+                        rs.getString("trecho"), rs.getDouble("relevancia")));
+            }
+        }
+        String proximo = null;
+        if (lista.size() > limite) {
+            lista.remove(limite);
+            proximo = codificarDeslocamento(deslocamento + limite);
+        }
+        return new Pagina<>(lista, proximo);
+    }
+
+    // "relatorio mensal" -> "relatorio" "mensal"*  (null se não sobrar termo)
+    private static String montarConsultaFts(String texto) {
+        if (texto == null) return null;
+        var termos = texto.trim().split("\\s+");
+        var partes = new ArrayList<String>();
+        for (var termo : termos) {
+            var limpo = termo.replace("\"", "");
+            if (!limpo.isEmpty()) partes.add("\"" + limpo + "\"");
+        }
+        if (partes.isEmpty()) return null;
+        int ultimo = partes.size() - 1;
+        partes.set(ultimo, partes.get(ultimo) + "*");
+        return String.join(" ", partes);
+    }
+
     public Optional<Nota> buscarPorId(Long id) throws SQLException {
         try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement("SELECT id, etiqueta_id, status_id, titulo, conteudo, data_criacao, data_atualizacao, prazo_final FROM notas WHERE id = ?")) {
+             var stmt = conn.prepareStatement("SELECT " + COLUNAS + " FROM notas WHERE id = ?")) {
             stmt.setLong(1, id);
             var rs = stmt.executeQuery();
             if (rs.next()) return Optional.of(mapear(rs));
@@ -28,63 +354,274 @@ public class NotaRepository {
         return Optional.empty();
     }
 
-    public List<Nota> buscarPorEtiqueta(Long etiquetaId) throws SQLException {
-        var lista = new ArrayList<Nota>();
+    // Nota com etiqueta e status em uma única consulta
+    public Optional<NotaDTO> buscarDetalhadaPorId(Long id) throws SQLException {
         try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement("SELECT id, etiqueta_id, status_id, titulo, conteudo, data_criacao, data_atualizacao, prazo_final FROM notas WHERE etiqueta_id = ? ORDER BY data_criacao DESC")) {
-            stmt.setLong(1, etiquetaId);
+             var stmt = conn.prepareStatement("SELECT " + COLUNAS_DETALHADAS + DE_NOTAS_DETALHADAS + " WHERE n.id = ?")) {
+            stmt.setLong(1, id);
             var rs = stmt.executeQuery();
-            while (rs.next()) lista.add(mapear(rs));
+            if (rs.next()) return Optional.of(mapearDetalhada(rs));
         }
-        return lista;
+        return Optional.empty();
     }
 
     public Nota salvar(Nota n) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement(
-                     "INSERT INTO notas (etiqueta_id, status_id, titulo, conteudo, prazo_final) VALUES (?, ?, ?, ?, ?)",
-                     Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setLong(1, n.getEtiquetaId());
-            stmt.setLong(2, n.getStatusId());
-            stmt.setString(3, n.getTitulo());
-            stmt.setString(4, n.getConteudo());
-            stmt.setDate(5, java.sql.Date.valueOf(n.getPrazoFinal()));
-            stmt.executeUpdate();
-            var rs = stmt.getGeneratedKeys();
-            if (rs.next()) n.setId(rs.getLong(1));
-        }
+        // Compressão feita aqui, fora da thread do escritor
+        var conteudo = CodecConteudo.codificar(n.getConteudo());
+        var id = escrever(conn -> {
+            try (var stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setLong(1, n.getEtiquetaId());
+                stmt.setLong(2, n.getStatusId());
+                stmt.setString(3, n.getTitulo());
+                vincularConteudo(stmt, 4, conteudo);
+                stmt.setDate(7, java.sql.Date.valueOf(n.getPrazoFinal()));
+                stmt.executeUpdate();
+                var rs = stmt.getGeneratedKeys();
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        });
+        if (id != null) n.setId(id);
         return n;
     }
 
+    // Inserção em lote: um único PreparedStatement e uma única transação no escritor
+    public int salvarLote(List<Nota> notas) throws SQLException {
+        if (notas.isEmpty()) return 0;
+        var conteudos = new ArrayList<CodecConteudo.Codificado>(notas.size());
+        for (var n : notas) conteudos.add(CodecConteudo.codificar(n.getConteudo()));
+        return escrever(conn -> {
+            try (var stmt = conn.prepareStatement(INSERT)) {
+                for (int i = 0; i < notas.size(); i++) {
+                    var n = notas.get(i);
+                    stmt.setLong(1, n.getEtiquetaId());
+                    stmt.setLong(2, n.getStatusId());
+                    stmt.setString(3, n.getTitulo());
+                    vincularConteudo(stmt, 4, conteudos.get(i));
+                    stmt.setDate(7, java.sql.Date.valueOf(n.getPrazoFinal()));
+                    stmt.addBatch();
+                }
+                int total = 0;
+                for (int r : stmt.executeBatch()) {
+                    total += r == Statement.SUCCESS_NO_INFO ? 1 : Math.max(r, 0);
+                }
+                return total;
+            }
+        });
+    }
+
     public boolean atualizar(Nota n) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement(
-                     "UPDATE notas SET etiqueta_id = ?, status_id = ?, titulo = ?, conteudo = ?, prazo_final = ? WHERE id = ?")) {
-            stmt.setLong(1, n.getEtiquetaId());
-            stmt.setLong(2, n.getStatusId());
-            stmt.setString(3, n.getTitulo());
-            stmt.setString(4, n.getConteudo());
-            stmt.setDate(5, java.sql.Date.valueOf(n.getPrazoFinal()));
-            stmt.setLong(6, n.getId());
-            return stmt.executeUpdate() > 0;
+        var conteudo = CodecConteudo.codificar(n.getConteudo());
+        return escrever(conn -> {
+            try (var stmt = conn.prepareStatement(
+                    "UPDATE notas SET etiqueta_id = ?, status_id = ?, titulo = ?, "
+                    + "conteudo = ?, conteudo_comprimido = ?, conteudo_codec = ?, prazo_final = ? WHERE id = ?")) {
+                stmt.setLong(1, n.getEtiquetaId());
+                stmt.setLong(2, n.getStatusId());
+                stmt.setString(3, n.getTitulo());
+                vincularConteudo(stmt, 4, conteudo);
+                stmt.setDate(7, java.sql.Date.valueOf(n.getPrazoFinal()));
+                stmt.setLong(8, n.getId());
+                return stmt.executeUpdate() > 0;
+            }
+        });
+    }
+
+    /**
+     * Migração do conteúdo gravado antes do codec: percorre a tabela por id, em lotes,
+     * comprime fora do escritor e grava cada lote em uma única operação de escrita.
+     * Preserva data_atualizacao (não é uma edição do usuário). Devolve quantas notas
+     * foram comprimidas.
+     */
+    public int comprimirExistentes(int tamanhoLote, long pausaMs) throws SQLException, InterruptedException {
+        record Pendente(long id, String original, String dataAtualizacao, CodecConteudo.Codificado codificado) {}
+        long ultimoId = 0;
+        int total = 0;
+        while (true) {
+            var pendentes = new ArrayList<Pendente>();
+            int lidas = 0;
+            try (var conn = DatabaseConfig.getConnection();
+                 var stmt = conn.prepareStatement("""
+                     SELECT id, conteudo, data_atualizacao FROM notas
+                     WHERE id > ? AND conteudo_codec IS NULL AND length(CAST(conteudo AS BLOB)) >= ?
+                     ORDER BY id LIMIT ?
+                     """)) {
+                stmt.setLong(1, ultimoId);
+                stmt.setInt(2, CodecConteudo.getMinimoBytes());
+                stmt.setInt(3, tamanhoLote);
+                var rs = stmt.executeQuery();
+                while (rs.next()) {
+                    lidas++;
+                    ultimoId = rs.getLong("id");
+                    var original = rs.getString("conteudo");
+                    var codificado = CodecConteudo.codificar(original);
+                    if (codificado.codec() != null) {
+                        pendentes.add(new Pendente(ultimoId, original, rs.getString("data_atualizacao"), codificado));
+                    }
+                }
+            }
+            if (lidas == 0) return total;
+            if (pendentes.isEmpty()) continue;
+
+            // Só muda a forma de armazenar o conteúdo: a versão (ETag) continua a mesma
+            total += DatabaseConfig.escrever(conn -> {
+                int gravadas = 0;
+                // conteudo = original: não sobrescrever uma edição feita depois da leitura
+                try (var comprimir = conn.prepareStatement(
+                         "UPDATE notas SET conteudo = NULL, conteudo_comprimido = ?, conteudo_codec = ? "
+                         + "WHERE id = ? AND conteudo_codec IS NULL AND conteudo = ?");
+                     var restaurar = conn.prepareStatement("UPDATE notas SET data_atualizacao = ? WHERE id = ?")) {
+                    for (var p : pendentes) {
+                        comprimir.setBytes(1, p.codificado().comprimido());
+                        comprimir.setString(2, p.codificado().codec());
+                        comprimir.setLong(3, p.id());
+                        comprimir.setString(4, p.original());
+                        if (comprimir.executeUpdate() == 0) continue;
+                        // update_nota_timestamp disparou: voltar ao valor anterior
+                        restaurar.setString(1, p.dataAtualizacao());
+                        restaurar.setLong(2, p.id());
+                        restaurar.executeUpdate();
+                        gravadas++;
+                    }
+                }
+                return gravadas;
+            });
+            // Intervalo entre lotes para não monopolizar a fila de escrita
+            if (pausaMs > 0) Thread.sleep(pausaMs);
         }
     }
 
     public boolean deletar(Long id) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement("DELETE FROM notas WHERE id = ?")) {
-            stmt.setLong(1, id);
-            return stmt.executeUpdate() > 0;
+        return escrever(conn -> {
+            try (var stmt = conn.prepareStatement("DELETE FROM notas WHERE id = ?")) {
+                stmt.setLong(1, id);
+                return stmt.executeUpdate() > 0;
+            }
+        });
+    }
+
+    /**
+     * Alteração em massa: um único UPDATE com o WHERE do filtro (IDs e/ou critérios).
+     * Campos nulos não são alterados. Exige filtro preenchido para não atingir a tabela inteira.
+     */
+    public int atualizarLote(FiltroNotas filtro, Long statusId, Long etiquetaId, LocalDate prazoFinal) throws SQLException {
+        if (filtro == null || filtro.isVazio()) {
+            throw new IllegalArgumentException("Informe IDs ou um filtro para a alteração em massa");
+        }
+        var sets = new ArrayList<String>();
+        var params = new ArrayList<Object>();
+        if (statusId != null) {
+            sets.add("status_id = ?");
+            params.add(statusId);
+        }
+        if (etiquetaId != null) {
+            sets.add("etiqueta_id = ?");
+            params.add(etiquetaId);
+        }
+        if (prazoFinal != null) {
+            sets.add("prazo_final = ?");
+            params.add(java.sql.Date.valueOf(prazoFinal));
+        }
+        if (sets.isEmpty()) {
+            throw new IllegalArgumentException("Nenhuma alteração informada");
+        }
+        var sql = "UPDATE notas SET " + String.join(", ", sets) + clausulaWhere(montarWhere(filtro, params, ""));
+        return escrever(conn -> {
+            try (var stmt = conn.prepareStatement(sql)) {
+                vincular(stmt, params);
+                return stmt.executeUpdate();
+            }
+        });
+    }
+
+    // Exclusão em massa: um único DELETE com o WHERE do filtro
+    public int deletarLote(FiltroNotas filtro) throws SQLException {
+        if (filtro == null || filtro.isVazio()) {
+            throw new IllegalArgumentException("Informe IDs ou um filtro para a exclusão em massa");
+        }
+        var params = new ArrayList<Object>();
+        var sql = "DELETE FROM notas" + clausulaWhere(montarWhere(filtro, params, ""));
+        return escrever(conn -> {
+            try (var stmt = conn.prepareStatement(sql)) {
+                vincular(stmt, params);
+                return stmt.executeUpdate();
+            }
+        });
+    }
+
+    // Cursor opaco: base64url("data_criacao|id") da última nota da página
+    private record ChaveCursor(String dataCriacao, long id) {}
+
+    private static String codificarCursor(String dataCriacao, long id) {
+        var bruto = dataCriacao + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ChaveCursor decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            var bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = bruto.lastIndexOf('|');
+            return new ChaveCursor(bruto.substring(0, sep), Long.parseLong(bruto.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    private static String codificarDeslocamento(int deslocamento) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("o" + deslocamento).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodificarDeslocamento(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0;
+        try {
+            var bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int deslocamento = Integer.parseInt(bruto.substring(1));
+            if (!bruto.startsWith("o") || deslocamento < 0) throw new IllegalArgumentException();
+            return deslocamento;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
         }
     }
 
+    // Linha do JOIN com etiquetas/status_nota (nome nulo = registro relacionado ausente)
+    private NotaDTO mapearDetalhada(ResultSet rs) throws SQLException {
+        var nota = mapear(rs);
+        Etiqueta etiqueta = null;
+        var etiquetaNome = rs.getString("etiqueta_nome");
+        if (etiquetaNome != null) {
+            etiqueta = new Etiqueta(etiquetaNome);
+            etiqueta.setId(nota.getEtiquetaId());
+        }
+        StatusNota status = null;
+        var statusNome = rs.getString("status_nome");
+        if (statusNome != null) {
+            status = new StatusNota(statusNome, rs.getString("status_cor"));
+            status.setId(nota.getStatusId());
+        }
+        return new NotaDTO(nota, etiqueta, status);
+    }
+
     private Nota mapear(ResultSet rs) throws SQLException {
         var n = new Nota();
         n.setId(rs.getLong("id"));
         n.setEtiquetaId(rs.getLong("etiqueta_id"));
         n.setStatusId(rs.getLong("status_id"));
         n.setTitulo(rs.getString("titulo"));
-        n.setConteudo(rs.getString("conteudo"));
+        // Conteúdo comprimido: guarda os bytes e só descomprime se alguém ler o texto
+        var codec = rs.getString("conteudo_codec");
+        if (codec == null) {
+            n.setConteudo(rs.getString("conteudo"));
+        } else {
+            var comprimido = rs.getBytes("conteudo_comprimido");
+            n.setConteudoAdiado(() -> {
+                try {
+                    return CodecConteudo.decodificar(null, comprimido, codec);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Falha ao ler o conteúdo da nota " + n.getId() + ": " + e.getMessage(), e);
+                }
+            });
+        }
 
         // SQLite CURRENT_TIMESTAMP retorna UTC, converter para horário de Brasília (UTC-3)
         var tsCriacao = rs.getTimestamp("data_criacao");
@@ -6,7 +6,36 @@ import java.sql.*;
 import java.util.*;
 
 public class StatusNotaRepository {
+    // Cache compartilhado por todas as instâncias do repositório
+    private static final CacheReferencia<StatusNota> CACHE = new CacheReferencia<>(
+        "status", StatusNota::getId, Comparator.comparing(StatusNota::getNome),
+        StatusNotaRepository::lerTodos, StatusNotaRepository::lerPorId
+    );
+
+    // Carregar o cache na inicialização
+    public static void carregarCache() throws SQLException {
+        CACHE.carregar();
+    }
+
+    public static Map<String, Object> estatisticasCache() {
+        return CACHE.estatisticas();
+    }
+
+    // Muda a cada inclusão/alteração/exclusão confirmada
+    public static long versaoCache() {
+        return CACHE.versao();
+    }
+
+    // Leitura do cache (sem acesso ao banco); lista imutável
     public List<StatusNota> buscarTodos() throws SQLException {
+        return CACHE.todos();
+    }
+
+    public Optional<StatusNota> buscarPorId(Long id) throws SQLException {
+        return CACHE.porId(id);
+    }
+
+    private static List<StatusNota> lerTodos() throws SQLException {
         var lista = new ArrayList<StatusNota>();
         try (var conn = DatabaseConfig.getConnection();
              var stmt = conn.prepareStatement("SELECT id, nome, cor_hex, data_criacao FROM status_nota ORDER BY nome ASC")) {
@@ -16,7 +45,7 @@ public class StatusNotaRepository {
         return lista;
     }
 
-    public Optional<StatusNota> buscarPorId(Long id) throws SQLException {
+    private static Optional<StatusNota> lerPorId(Long id) throws SQLException {
         try (var conn = DatabaseConfig.getConnection();
              var stmt = conn.prepareStatement("SELECT id, nome, cor_hex, data_criacao FROM status_nota WHERE id = ?")) {
             stmt.setLong(1, id);
@@ -27,38 +56,49 @@ public class StatusNotaRepository {
     }
 
     public StatusNota salvar(StatusNota s) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement(
-                     "INSERT INTO status_nota (nome, cor_hex) VALUES (?, ?)",
-                     Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, s.getNome());
-            stmt.setString(2, s.getCorHex());
-            stmt.executeUpdate();
-            var rs = stmt.getGeneratedKeys();
-            if (rs.next()) s.setId(rs.getLong(1));
+        var id = DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement(
+                    "INSERT INTO status_nota (nome, cor_hex) VALUES (?, ?)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, s.getNome());
+                stmt.setString(2, s.getCorHex());
+                stmt.executeUpdate();
+                var rs = stmt.getGeneratedKeys();
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        });
+        if (id != null) {
+            s.setId(id);
+            CACHE.atualizarItem(id);
         }
         return s;
     }
 
     public boolean atualizar(StatusNota s) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement("UPDATE status_nota SET nome = ?, cor_hex = ? WHERE id = ?")) {
-            stmt.setString(1, s.getNome());
-            stmt.setString(2, s.getCorHex());
-            stmt.setLong(3, s.getId());
-            return stmt.executeUpdate() > 0;
-        }
+        boolean ok = DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement("UPDATE status_nota SET nome = ?, cor_hex = ? WHERE id = ?")) {
+                stmt.setString(1, s.getNome());
+                stmt.setString(2, s.getCorHex());
+                stmt.setLong(3, s.getId());
+                return stmt.executeUpdate() > 0;
+            }
+        });
+        if (ok) CACHE.atualizarItem(s.getId());
+        return ok;
     }
 
     public boolean deletar(Long id) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement("DELETE FROM status_nota WHERE id = ?")) {
-            stmt.setLong(1, id);
-            return stmt.executeUpdate() > 0;
-        }
+        boolean ok = DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement("DELETE FROM status_nota WHERE id = ?")) {
+                stmt.setLong(1, id);
+                return stmt.executeUpdate() > 0;
+            }
+        });
+        if (ok) CACHE.atualizarItem(id);
+        return ok;
     }
 
-    private StatusNota mapear(ResultSet rs) throws SQLException {
+    private static StatusNota mapear(ResultSet rs) throws SQLException {
         var s = new StatusNota();
         s.setId(rs.getLong("id"));
         s.setNome(rs.getString("nome"));
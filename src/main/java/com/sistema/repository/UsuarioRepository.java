@@ -7,6 +7,7 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class UsuarioRepository {
     
@@ -60,74 +61,94 @@ public class UsuarioRepository {
     
     // Criar novo usuário
     public Usuario salvar(Usuario usuario) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement(
-                 "INSERT INTO usuarios (nome, email, telefone, senha_hash) VALUES (?, ?, ?, ?)",
-                 Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setString(1, usuario.getNome());
-            stmt.setString(2, usuario.getEmail());
-            stmt.setString(3, usuario.getTelefone());
-            stmt.setString(4, usuario.getSenhaHash());
-            
-            stmt.executeUpdate();
-            
-            var rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                usuario.setId(rs.getLong(1));
+        var id = DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement(
+                     "INSERT INTO usuarios (nome, email, telefone, senha_hash) VALUES (?, ?, ?, ?)",
+                     Statement.RETURN_GENERATED_KEYS)) {
+                
+                stmt.setString(1, usuario.getNome());
+                stmt.setString(2, usuario.getEmail());
+                stmt.setString(3, usuario.getTelefone());
+                stmt.setString(4, usuario.getSenhaHash());
+                
+                stmt.executeUpdate();
+                
+                var rs = stmt.getGeneratedKeys();
+                return rs.next() ? rs.getLong(1) : null;
             }
-            
-            return usuario;
+        });
+        
+        if (id != null) {
+            usuario.setId(id);
         }
+        
+        return usuario;
     }
     
     // Atualizar usuário
     public boolean atualizar(Usuario usuario) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement(
-                 "UPDATE usuarios SET nome = ?, email = ?, telefone = ?, senha_hash = ?, ativo = ? WHERE id = ?")) {
+        return DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement(
+                     "UPDATE usuarios SET nome = ?, email = ?, telefone = ?, senha_hash = ?, ativo = ? WHERE id = ?")) {
 
-            stmt.setString(1, usuario.getNome());
-            stmt.setString(2, usuario.getEmail());
-            stmt.setString(3, usuario.getTelefone());
-            stmt.setString(4, usuario.getSenhaHash());
-            stmt.setInt(5, usuario.isAtivo() ? 1 : 0);
-            stmt.setLong(6, usuario.getId());
+                stmt.setString(1, usuario.getNome());
+                stmt.setString(2, usuario.getEmail());
+                stmt.setString(3, usuario.getTelefone());
+                stmt.setString(4, usuario.getSenhaHash());
+                stmt.setInt(5, usuario.isAtivo() ? 1 : 0);
+                stmt.setLong(6, usuario.getId());
 
-            return stmt.executeUpdate() > 0;
-        }
+                return stmt.executeUpdate() > 0;
+            }
+        });
     }
     
     // Atualizar senha
     public boolean atualizarSenha(Long id, String novaSenhaHash) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement("UPDATE usuarios SET senha_hash = ? WHERE id = ?")) {
-            
-            stmt.setString(1, novaSenhaHash);
-            stmt.setLong(2, id);
-            
-            return stmt.executeUpdate() > 0;
-        }
+        return DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement("UPDATE usuarios SET senha_hash = ? WHERE id = ?")) {
+                
+                stmt.setString(1, novaSenhaHash);
+                stmt.setLong(2, id);
+                
+                return stmt.executeUpdate() > 0;
+            }
+        });
+    }
+    
+    // Trocar o hash só se ainda for o mesmo lido antes (rehash não sobrescreve troca de senha)
+    public CompletableFuture<Boolean> substituirSenhaHash(Long id, String hashAtual, String novoHash) {
+        return DatabaseConfig.escreverAsync(conn -> {
+            try (var stmt = conn.prepareStatement("UPDATE usuarios SET senha_hash = ? WHERE id = ? AND senha_hash = ?")) {
+                
+                stmt.setString(1, novoHash);
+                stmt.setLong(2, id);
+                stmt.setString(3, hashAtual);
+                return stmt.executeUpdate() > 0;
+            }
+        });
     }
     
     // Desativar usuário (soft delete)
     public boolean desativar(Long id) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement("UPDATE usuarios SET ativo = 0 WHERE id = ?")) {
-            
-            stmt.setLong(1, id);
-            return stmt.executeUpdate() > 0;
-        }
+        return DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement("UPDATE usuarios SET ativo = 0 WHERE id = ?")) {
+                
+                stmt.setLong(1, id);
+                return stmt.executeUpdate() > 0;
+            }
+        });
     }
     
     // Deletar permanentemente
     public boolean deletar(Long id) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement("DELETE FROM usuarios WHERE id = ?")) {
-            
-            stmt.setLong(1, id);
-            return stmt.executeUpdate() > 0;
-        }
+        return DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement("DELETE FROM usuarios WHERE id = ?")) {
+                
+                stmt.setLong(1, id);
+                return stmt.executeUpdate() > 0;
+            }
+        });
     }
     
     // Verificar se email já existe
@@ -0,0 +1,275 @@
+package com.sistema.service;
+
+import com.sistema.config.Configuracao;
+import com.sistema.config.RodaTemporizacao;
+import com.sistema.model.FiltroNotas;
+import com.sistema.repository.EtiquetaRepository;
+import com.sistema.repository.NotaRepository;
+import com.sistema.repository.StatusNotaRepository;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Agenda de prazos: avisa quando uma nota pendente cruza um limiar de alerta.
+ *
+ * Os limiares são os dias restantes 5 (aviso), 3 (atenção), 1 (urgente),
+ * 0 (vence hoje) e -1 (atrasada), cruzados à meia-noite local. Cada nota
+ * pendente tem uma única entrada na roda de temporização, para o próximo limiar;
+ * ao disparar, os ouvintes recebem um {@link Evento} e a nota é reagendada para
+ * o limiar seguinte. NotaService reagenda a nota a cada criação/alteração e a
+ * retira na exclusão; operações em massa e mudanças em status ou etiquetas (a
+ * exclusão de uma etiqueta apaga as notas dela em cascata) fazem a agenda ser
+ * recarregada. A recarga lê o banco fora do lock e só troca o conteúdo da roda
+ * sob ele, reaplicando o que NotaService mudou durante a leitura.
+ *
+ * Ticks de 1 minuto: o evento sai no primeiro minuto do dia do limiar.
+ */
+public final class AgendaPrazos {
+
+    public enum Limiar {
+        AVISO(5, "aviso"),
+        ATENCAO(3, "atencao"),
+        URGENTE(1, "urgente"),
+        VENCE_HOJE(0, "urgente"),
+        ATRASADA(-1, "critico");
+
+        final int dias;
+        final String nivel;
+
+        Limiar(int dias, String nivel) {
+            this.dias = dias;
+            this.nivel = nivel;
+        }
+
+        // Próximo limiar a cruzar para quem está a diasRestantes do prazo (null = nenhum)
+        static Limiar proximo(long diasRestantes) {
+            for (var limiar : values()) {
+                if (limiar.dias < diasRestantes) return limiar;
+            }
+            return null;
+        }
+    }
+
+    /** "A nota entrou no nível X": nivel segue os níveis de /api/notificacoes/alertas. */
+    public record Evento(long notaId, String limiar, String nivel, int diasRestantes, String prazoFinal) {}
+
+    private record Agendado(LocalDate prazo, Limiar limiar) {}
+
+    // Alteração de nota recebida durante uma recarga (removida = excluída)
+    private record Alteracao(Long statusId, LocalDate prazo, boolean removida) {}
+
+    private static final long MS_POR_TICK = TimeUnit.MINUTES.toMillis(1);
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    private static final NotaRepository NOTAS = new NotaRepository();
+    private static final StatusNotaRepository STATUS = new StatusNotaRepository();
+
+    private static final RodaTemporizacao<Long, Agendado> RODA = new RodaTemporizacao<>(tickDe(System.currentTimeMillis()));
+    private static final List<Consumer<Evento>> OUVINTES = new CopyOnWriteArrayList<>();
+    private static final LongAdder EVENTOS = new LongAdder();
+
+    private static Set<Long> statusPendentes = Set.of();
+    private static long versaoStatus = -1;
+    private static long versaoEtiquetas = -1;
+    private static boolean carregada;
+    // Não nulo durante uma recarga
+    private static Map<Long, Alteracao> duranteCarga;
+    private static boolean invalidadaDuranteCarga;
+    private static ScheduledExecutorService relogio;
+
+    private AgendaPrazos() {}
+
+    public static void adicionarOuvinte(Consumer<Evento> ouvinte) {
+        OUVINTES.add(ouvinte);
+    }
+
+    public static void removerOuvinte(Consumer<Evento> ouvinte) {
+        OUVINTES.remove(ouvinte);
+    }
+
+    // Carregar os prazos pendentes e começar a andar a roda (notas.agenda.ativa=false desliga)
+    public static synchronized void iniciar() {
+        if (relogio != null || !Configuracao.booleano("notas.agenda.ativa", true)) return;
+        relogio = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "agenda-prazos");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // O primeiro tique (imediato) faz a carga; se falhar, o seguinte tenta de novo
+        relogio.scheduleAtFixedRate(AgendaPrazos::tique, 0, MS_POR_TICK, TimeUnit.MILLISECONDS);
+    }
+
+    // Nota criada/alterada: recolocar na agenda conforme prazo e status atuais
+    static void reagendar(Long notaId, Long statusId, LocalDate prazo) {
+        List<RodaTemporizacao.Disparo<Long, Agendado>> imediatos;
+        synchronized (AgendaPrazos.class) {
+            if (duranteCarga != null) duranteCarga.put(notaId, new Alteracao(statusId, prazo, false));
+            if (!carregada) return;
+            if (prazo == null || !statusPendentes.contains(statusId)) {
+                RODA.cancelar(notaId);
+                return;
+            }
+            imediatos = agendarProximo(notaId, prazo, LocalDate.now(ZONA));
+        }
+        notificar(imediatos);
+    }
+
+    static synchronized void remover(Long notaId) {
+        if (duranteCarga != null) duranteCarga.put(notaId, new Alteracao(null, null, true));
+        if (carregada) RODA.cancelar(notaId);
+    }
+
+    // Alterações em massa: recarregar no próximo tique
+    static synchronized void invalidar() {
+        carregada = false;
+        if (duranteCarga != null) invalidadaDuranteCarga = true;
+    }
+
+    private static void tique() {
+        try {
+            if (precisaCarregar()) {
+                carregar();
+            }
+            var vencidos = new ArrayList<RodaTemporizacao.Disparo<Long, Agendado>>();
+            synchronized (AgendaPrazos.class) {
+                var pendentes = new ArrayDeque<>(RODA.avancar(tickDe(System.currentTimeMillis())));
+                // Já avisada: agendar o limiar seguinte (que também pode ter passado se a roda atrasou)
+                while (!pendentes.isEmpty()) {
+                    var d = pendentes.poll();
+                    vencidos.add(d);
+                    var seguinte = Limiar.proximo(d.valor().limiar().dias);
+                    if (seguinte != null) {
+                        pendentes.addAll(RODA.agendar(d.chave(), new Agendado(d.valor().prazo(), seguinte),
+                                tickDoLimiar(d.valor().prazo(), seguinte)));
+                    }
+                }
+            }
+            notificar(vencidos);
+        } catch (Exception e) {
+            // Uma exceção cancelaria o agendamento: registrar e seguir no próximo tique
+            System.err.println("⚠️  Agenda de prazos: " + e.getMessage());
+        }
+    }
+
+    private static synchronized boolean precisaCarregar() {
+        return !carregada
+                || versaoStatus != StatusNotaRepository.versaoCache()
+                || versaoEtiquetas != EtiquetaRepository.versaoCache();
+    }
+
+    // Só na thread do relógio: lê o banco sem o lock, que reagendar/remover usam nas requisições
+    private static void carregar() throws Exception {
+        long novaVersaoStatus;
+        long novaVersaoEtiquetas;
+        synchronized (AgendaPrazos.class) {
+            // Versões lidas antes da consulta: uma mudança concorrente força nova carga
+            novaVersaoStatus = StatusNotaRepository.versaoCache();
+            novaVersaoEtiquetas = EtiquetaRepository.versaoCache();
+            duranteCarga = new HashMap<>();
+            invalidadaDuranteCarga = false;
+        }
+
+        var pendentes = new HashSet<Long>();
+        var hoje = LocalDate.now(ZONA);
+        Map<Long, LocalDate> prazos = Map.of();
+        try {
+            for (var status : STATUS.buscarTodos()) {
+                if (!status.getNome().equalsIgnoreCase("Resolvido")
+                        && !status.getNome().equalsIgnoreCase("Cancelado")) {
+                    pendentes.add(status.getId());
+                }
+            }
+            if (!pendentes.isEmpty()) {
+                var filtro = new FiltroNotas();
+                filtro.getStatusIds().addAll(pendentes);
+                // Prazo antes de hoje: já cruzou o último limiar (atrasada)
+                filtro.setPrazoDe(hoje);
+                prazos = NOTAS.buscarPrazos(filtro);
+            }
+        } catch (Exception e) {
+            synchronized (AgendaPrazos.class) {
+                duranteCarga = null;
+            }
+            throw e;
+        }
+
+        synchronized (AgendaPrazos.class) {
+            var alteracoes = duranteCarga;
+            duranteCarga = null;
+            statusPendentes = pendentes;
+            versaoStatus = novaVersaoStatus;
+            versaoEtiquetas = novaVersaoEtiquetas;
+            RODA.limpar();
+            // Na carga não se avisa nada: só o que cruzar daqui em diante
+            for (var e : prazos.entrySet()) {
+                agendarProximo(e.getKey(), e.getValue(), hoje);
+            }
+            // O que mudou enquanto o banco era lido vale mais que a leitura
+            alteracoes.forEach((notaId, a) -> {
+                if (a.removida() || a.prazo() == null || !pendentes.contains(a.statusId())) {
+                    RODA.cancelar(notaId);
+                } else {
+                    agendarProximo(notaId, a.prazo(), hoje);
+                }
+            });
+            carregada = !invalidadaDuranteCarga;
+        }
+    }
+
+    private static List<RodaTemporizacao.Disparo<Long, Agendado>> agendarProximo(Long notaId, LocalDate prazo, LocalDate hoje) {
+        long dias = prazo.toEpochDay() - hoje.toEpochDay();
+        var limiar = Limiar.proximo(dias);
+        if (limiar == null) {
+            RODA.cancelar(notaId);
+            return List.of();
+        }
+        return RODA.agendar(notaId, new Agendado(prazo, limiar), tickDoLimiar(prazo, limiar));
+    }
+
+    private static void notificar(List<RodaTemporizacao.Disparo<Long, Agendado>> disparos) {
+        for (var d : disparos) {
+            var agendado = d.valor();
+            var evento = new Evento(d.chave(), agendado.limiar().name().toLowerCase(), agendado.limiar().nivel,
+                    agendado.limiar().dias, agendado.prazo().toString());
+            EVENTOS.increment();
+            for (var ouvinte : OUVINTES) {
+                try {
+                    ouvinte.accept(evento);
+                } catch (RuntimeException e) {
+                    System.err.println("⚠️  Ouvinte da agenda de prazos falhou: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Meia-noite local do dia em que faltam limiar.dias para o prazo
+    private static long tickDoLimiar(LocalDate prazo, Limiar limiar) {
+        var dia = prazo.minusDays(limiar.dias);
+        return tickDe(dia.atStartOfDay(ZONA).toInstant().toEpochMilli());
+    }
+
+    private static long tickDe(long epochMs) {
+        return Math.floorDiv(epochMs + MS_POR_TICK - 1, MS_POR_TICK);
+    }
+
+    public static synchronized Map<String, Object> estatisticas() {
+        var dados = RODA.estatisticas();
+        dados.put("carregada", carregada);
+        dados.put("eventos", EVENTOS.sum());
+        dados.put("ouvintes", OUVINTES.size());
+        return dados;
+    }
+}
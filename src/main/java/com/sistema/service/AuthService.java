@@ -25,11 +25,14 @@ public class AuthService {
 
         var usuario = usuarioOpt.get();
 
-        // Gerar token único
-        var token = gerarToken();
-
-        // Salvar sessão no banco
-        salvarSessao(usuario.getId(), token);
+        // Token assinado (sem estado) ou token único salvo na tabela de sessões
+        String token;
+        if (TokensAssinados.ATIVO) {
+            token = TokensAssinados.emitir(usuario.getId());
+        } else {
+            token = gerarToken();
+            salvarSessao(usuario.getId(), token);
+        }
 
         // Retornar dados
         var dados = new HashMap<String, Object>();
@@ -41,19 +44,50 @@ public class AuthService {
     
     // Logout - invalidar token
     public void logout(String token) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement("DELETE FROM sessoes WHERE token = ?")) {
-            
-            stmt.setString(1, token);
-            stmt.executeUpdate();
+        if (ehAssinado(token)) {
+            // Sem sessão no banco: revogar os tokens do usuário (todos os dispositivos)
+            var usuarioId = TokensAssinados.validar(token);
+            if (usuarioId.isPresent()) {
+                TokensAssinados.revogar(usuarioId.get());
+            }
+            return;
         }
+
+        DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement("DELETE FROM sessoes WHERE token = ?")) {
+                
+                stmt.setString(1, token);
+                return stmt.executeUpdate();
+            }
+        });
+        CacheSessoes.invalidarToken(token);
     }
     
-    // Verificar se token é válido
+    // Verificar se token é válido (cache em memória; banco só na falta)
     public Optional<UsuarioDTO> verificarToken(String token) throws SQLException {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        if (ehAssinado(token)) {
+            // Dados atuais do usuário: uma leitura, só neste caminho (não no filtro)
+            var usuarioId = TokensAssinados.validar(token);
+            if (usuarioId.isEmpty()) {
+                return Optional.empty();
+            }
+            return usuarioService.buscarPorId(usuarioId.get()).filter(UsuarioDTO::isAtivo);
+        }
+
+        var emCache = CacheSessoes.buscar(token);
+        if (emCache.isPresent()) {
+            return emCache;
+        }
+
+        long geracao = CacheSessoes.geracao();
         try (var conn = DatabaseConfig.getConnection();
              var stmt = conn.prepareStatement("""
-                 SELECT u.* FROM usuarios u
+                 SELECT u.*, CAST(strftime('%s', s.expira_em) AS INTEGER) AS expira_epoch
+                 FROM usuarios u
                  INNER JOIN sessoes s ON u.id = s.usuario_id
                  WHERE s.token = ? AND s.expira_em > datetime('now') AND u.ativo = 1
                  """)) {
@@ -62,24 +96,52 @@ public class AuthService {
             var rs = stmt.executeQuery();
             
             if (rs.next()) {
-                var usuario = mapearUsuario(rs);
-                return Optional.of(new UsuarioDTO(usuario));
+                var usuario = new UsuarioDTO(mapearUsuario(rs));
+                CacheSessoes.guardar(token, usuario, rs.getLong("expira_epoch") * 1000, geracao);
+                return Optional.of(usuario);
             }
         }
         
         return Optional.empty();
     }
+
+    // Id do usuário autenticado (filtro de /api/*): token assinado não faz I/O
+    public Optional<Long> autenticar(String token) throws SQLException {
+        if (ehAssinado(token)) {
+            return TokensAssinados.validar(token);
+        }
+        return verificarToken(token).map(UsuarioDTO::getId);
+    }
+
+    // Carregar épocas de revogação (sempre que tokens assinados são aceitos, em qualquer modo)
+    public static void iniciarTokens() throws SQLException {
+        if (TokensAssinados.ACEITOS) {
+            TokensAssinados.iniciar();
+        }
+    }
+
+    // Tokens assinados são reconhecidos em qualquer modo, para a troca de modo não derrubar ninguém
+    // (só validam com segredo fixo; ver TokensAssinados.ACEITOS)
+    private static boolean ehAssinado(String token) {
+        return token != null && token.startsWith("s1.");
+    }
+
+    // Métricas do cache de sessões e dos tokens assinados (para /api/admin/cache)
+    public static List<Map<String, Object>> estatisticasCache() {
+        return List.of(CacheSessoes.estatisticas(), TokensAssinados.estatisticas());
+    }
     
     // Salvar sessão no banco
     private void salvarSessao(Long usuarioId, String token) throws SQLException {
-        try (var conn = DatabaseConfig.getConnection();
-             var stmt = conn.prepareStatement(
-                 "INSERT INTO sessoes (usuario_id, token, expira_em) VALUES (?, ?, datetime('now', '+24 hours'))")) {
-            
-            stmt.setLong(1, usuarioId);
-            stmt.setString(2, token);
-            stmt.executeUpdate();
-        }
+        DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement(
+                     "INSERT INTO sessoes (usuario_id, token, expira_em) VALUES (?, ?, datetime('now', '+24 hours'))")) {
+                
+                stmt.setLong(1, usuarioId);
+                stmt.setString(2, token);
+                return stmt.executeUpdate();
+            }
+        });
     }
     
     // Gerar token único
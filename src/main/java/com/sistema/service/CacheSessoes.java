@@ -0,0 +1,124 @@
+package com.sistema.service;
+
+import com.sistema.config.Configuracao;
+import com.sistema.model.UsuarioDTO;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache em memória das sessões válidas, indexado pelo token.
+ *
+ * Cada entrada vale até o menor entre a expiração da sessão no banco e o TTL
+ * do cache (auth.sessoes.cacheTtlSegundos), que limita por quanto tempo uma
+ * alteração feita por fora da aplicação pode passar despercebida. O tamanho é
+ * limitado por auth.sessoes.cacheMax. As expiradas são removidas numa varredura
+ * feita no máximo a cada poucos segundos; com o cache cheio, sessões novas
+ * simplesmente não são guardadas (contadas em "naoGuardadas") até a próxima
+ * varredura, sem varrer o mapa a cada falta no caminho da requisição.
+ *
+ * Logout, desativação ou alteração de usuário invalidam as entradas na hora.
+ * Um contador de geração impede que uma leitura do banco iniciada antes da
+ * invalidação recoloque no cache a sessão que acabou de ser removida.
+ */
+final class CacheSessoes {
+
+    private record Entrada(UsuarioDTO usuario, long expiraEmMillis) {}
+
+    private static final long TTL_MILLIS = Configuracao.longo("auth.sessoes.cacheTtlSegundos", 300) * 1000;
+    private static final int MAXIMO = Configuracao.inteiro("auth.sessoes.cacheMax", 10_000);
+    private static final long VARREDURA_MILLIS = 5_000;
+
+    private static final ConcurrentHashMap<String, Entrada> ENTRADAS = new ConcurrentHashMap<>();
+    private static final AtomicLong GERACAO = new AtomicLong();
+    private static final AtomicLong PROXIMA_VARREDURA = new AtomicLong(System.currentTimeMillis() + VARREDURA_MILLIS);
+
+    private static final LongAdder ACERTOS = new LongAdder();
+    private static final LongAdder FALTAS = new LongAdder();
+    private static final LongAdder EXPIRADAS = new LongAdder();
+    private static final LongAdder NAO_GUARDADAS = new LongAdder();
+
+    private CacheSessoes() {}
+
+    static Optional<UsuarioDTO> buscar(String token) {
+        var entrada = ENTRADAS.get(token);
+        if (entrada == null) {
+            FALTAS.increment();
+            return Optional.empty();
+        }
+        if (entrada.expiraEmMillis() <= System.currentTimeMillis()) {
+            ENTRADAS.remove(token, entrada);
+            EXPIRADAS.increment();
+            FALTAS.increment();
+            return Optional.empty();
+        }
+        ACERTOS.increment();
+        return Optional.of(entrada.usuario());
+    }
+
+    // Ler antes de consultar o banco e repassar a guardar()
+    static long geracao() {
+        return GERACAO.get();
+    }
+
+    /**
+     * Guardar a sessão lida do banco. Ignorado se houve invalidação desde
+     * {@code geracaoLida}: o resultado da leitura pode já estar obsoleto.
+     */
+    static void guardar(String token, UsuarioDTO usuario, long expiraSessaoMillis, long geracaoLida) {
+        long agora = System.currentTimeMillis();
+        long expira = Math.min(expiraSessaoMillis, agora + TTL_MILLIS);
+        if (expira <= agora || MAXIMO <= 0) return;
+
+        varrerSeNecessario(agora);
+        if (ENTRADAS.size() >= MAXIMO) {
+            NAO_GUARDADAS.increment();
+            return;
+        }
+
+        var entrada = new Entrada(usuario, expira);
+        ENTRADAS.put(token, entrada);
+        // Invalidação concorrente entre a checagem e o put: desfazer
+        if (GERACAO.get() != geracaoLida) ENTRADAS.remove(token, entrada);
+    }
+
+    static void invalidarToken(String token) {
+        GERACAO.incrementAndGet();
+        ENTRADAS.remove(token);
+    }
+
+    static void invalidarUsuario(Long usuarioId) {
+        GERACAO.incrementAndGet();
+        ENTRADAS.values().removeIf(e -> usuarioId.equals(e.usuario().getId()));
+    }
+
+    // Remover expiradas, no máximo a cada VARREDURA_MILLIS (uma só thread varre)
+    private static void varrerSeNecessario(long agora) {
+        long proxima = PROXIMA_VARREDURA.get();
+        if (agora < proxima || !PROXIMA_VARREDURA.compareAndSet(proxima, agora + VARREDURA_MILLIS)) return;
+        ENTRADAS.values().removeIf(e -> {
+            boolean expirada = e.expiraEmMillis() <= agora;
+            if (expirada) EXPIRADAS.increment();
+            return expirada;
+        });
+    }
+
+    static Map<String, Object> estatisticas() {
+        long hits = ACERTOS.sum();
+        long misses = FALTAS.sum();
+        var dados = new LinkedHashMap<String, Object>();
+        dados.put("nome", "sessoes");
+        dados.put("itens", ENTRADAS.size());
+        dados.put("maximo", MAXIMO);
+        dados.put("ttlSegundos", TTL_MILLIS / 1000);
+        dados.put("acertos", hits);
+        dados.put("faltas", misses);
+        dados.put("taxaAcerto", hits + misses == 0 ? 0.0 : hits / (double) (hits + misses));
+        dados.put("expiradas", EXPIRADAS.sum());
+        dados.put("naoGuardadas", NAO_GUARDADAS.sum());
+        return dados;
+    }
+}
@@ -0,0 +1,147 @@
+package com.sistema.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.config.Configuracao;
+import io.javalin.http.sse.SseClient;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Canal de eventos para o navegador (Server-Sent Events em /api/eventos).
+ *
+ * Eventos: nota.criada, nota.atualizada, nota.excluida, notas.lote (importação,
+ * operações em massa e exclusão de etiqueta, que apaga as notas dela em cascata),
+ * usuario.alterado e alerta (nota entrou em um nível de
+ * alerta; Main repassa os eventos da {@link AgendaPrazos}). Cada evento leva só
+ * ids e contagens: o cliente decide o que reler.
+ *
+ * O JSON é gerado uma vez por evento. Cada cliente tem uma fila limitada
+ * (eventos.buffer) esvaziada por uma thread virtual própria; quem não dá conta e
+ * enche a fila é desconectado (o EventSource reconecta e relê o estado), para que
+ * um cliente lento nunca segure quem publica. Sem eventos, a thread manda um
+ * comentário de heartbeat a cada eventos.heartbeatSegundos.
+ */
+public final class CanalEventos {
+
+    private record Mensagem(String tipo, String dados, long id) {
+        static final Mensagem ACORDAR = new Mensagem(null, null, 0);
+    }
+
+    private static final class Cliente {
+        final SseClient sse;
+        final BlockingQueue<Mensagem> fila;
+        volatile boolean encerrado;
+
+        Cliente(SseClient sse, int capacidade) {
+            this.sse = sse;
+            this.fila = new ArrayBlockingQueue<>(capacidade);
+        }
+    }
+
+    private static final int BUFFER = Math.max(1, Configuracao.inteiro("eventos.buffer", 64));
+    private static final int MAX_CLIENTES = Math.max(1, Configuracao.inteiro("eventos.maxClientes", 1000));
+    private static final long HEARTBEAT_SEGUNDOS = Math.max(1, Configuracao.longo("eventos.heartbeatSegundos", 15));
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Map<SseClient, Cliente> CLIENTES = new ConcurrentHashMap<>();
+    private static final AtomicLong SEQUENCIA = new AtomicLong();
+
+    private static final LongAdder PUBLICADOS = new LongAdder();
+    private static final LongAdder ENTREGUES = new LongAdder();
+    private static final LongAdder DESCARTADOS = new LongAdder();
+    private static final LongAdder RECUSADOS = new LongAdder();
+
+    private CanalEventos() {}
+
+    /** Registrar a conexão SSE (já autenticada pelo filtro de /api/*). */
+    public static void conectar(SseClient sse) {
+        if (CLIENTES.size() >= MAX_CLIENTES) {
+            RECUSADOS.increment();
+            sse.close();
+            return;
+        }
+        sse.keepAlive();
+        var cliente = new Cliente(sse, BUFFER);
+        sse.onClose(() -> encerrar(cliente));
+        CLIENTES.put(sse, cliente);
+        Thread.ofVirtual().name("sse-cliente").start(() -> enviar(cliente));
+    }
+
+    public static void publicar(String tipo, Object dados) {
+        String json;
+        try {
+            json = JSON.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            System.err.println("⚠️  Evento '" + tipo + "' não serializável: " + e.getMessage());
+            return;
+        }
+        PUBLICADOS.increment();
+        if (CLIENTES.isEmpty()) return;
+        var mensagem = new Mensagem(tipo, json, SEQUENCIA.incrementAndGet());
+        for (var cliente : CLIENTES.values()) {
+            entregar(cliente, mensagem);
+        }
+    }
+
+    // Fila cheia = cliente lento: desconectar em vez de esperar ou acumular
+    private static void entregar(Cliente cliente, Mensagem mensagem) {
+        if (!cliente.fila.offer(mensagem)) {
+            DESCARTADOS.increment();
+            encerrar(cliente);
+        }
+    }
+
+    private static void enviar(Cliente cliente) {
+        try {
+            while (!cliente.encerrado) {
+                var mensagem = cliente.fila.poll(HEARTBEAT_SEGUNDOS, TimeUnit.SECONDS);
+                if (cliente.encerrado || cliente.sse.terminated()) break;
+                if (mensagem == null) {
+                    // Ocioso: o heartbeat mantém a conexão e revela quem já saiu (a escrita falha)
+                    cliente.sse.sendComment("ping");
+                } else {
+                    cliente.sse.sendEvent(mensagem.tipo(), mensagem.dados(), Long.toString(mensagem.id()));
+                    ENTREGUES.increment();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Conexão caiu no meio do envio
+        } finally {
+            encerrar(cliente);
+        }
+    }
+
+    private static void encerrar(Cliente cliente) {
+        if (cliente.encerrado) return;
+        cliente.encerrado = true;
+        CLIENTES.remove(cliente.sse);
+        cliente.fila.clear();
+        cliente.fila.offer(Mensagem.ACORDAR); // acordar a thread de envio
+        try {
+            cliente.sse.close();
+        } catch (RuntimeException e) {
+            // já fechado
+        }
+    }
+
+    public static Map<String, Object> estatisticas() {
+        var dados = new LinkedHashMap<String, Object>();
+        dados.put("clientes", CLIENTES.size());
+        dados.put("maxClientes", MAX_CLIENTES);
+        dados.put("buffer", BUFFER);
+        dados.put("publicados", PUBLICADOS.sum());
+        dados.put("entregues", ENTREGUES.sum());
+        dados.put("clientesDescartados", DESCARTADOS.sum());
+        dados.put("conexoesRecusadas", RECUSADOS.sum());
+        return dados;
+    }
+}
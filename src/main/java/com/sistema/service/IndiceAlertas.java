@@ -0,0 +1,238 @@
+package com.sistema.service;
+
+import com.sistema.model.FiltroNotas;
+import com.sistema.model.NotaDTO;
+import com.sistema.repository.EtiquetaRepository;
+import com.sistema.repository.NotaRepository;
+import com.sistema.repository.StatusNotaRepository;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Notas pendentes que vencem em até {@link #JANELA_DIAS} dias (ou já venceram),
+ * separadas em baldes por nível de alerta e mantidas em memória.
+ *
+ * NotaService avisa cada criação, alteração e exclusão ({@link #aplicar},
+ * {@link #remover}); operações em massa só invalidam o índice, que é recarregado
+ * no próximo acesso. Na virada do dia os dias restantes são recalculados e só
+ * entram do banco as notas cujo prazo passou a caber na janela. Mudança em
+ * status (nome "Resolvido"/"Cancelado") ou etiquetas também força recarga.
+ *
+ * Montar os alertas custa O(tamanho dos baldes), sem leitura do banco.
+ *
+ * {@link #versao()} muda depois de cada alteração nos baldes (sob o lock), e não
+ * na escrita do banco: o ETag de /api/notificacoes/alertas é montado com ela, então
+ * quem leu a versão antes de chamar baldes() nunca recebe baldes mais antigos.
+ */
+final class IndiceAlertas {
+
+    static final int JANELA_DIAS = 5;
+
+    enum Nivel {
+        CRITICO, URGENTE, ATENCAO, AVISO;
+
+        // Nível para os dias restantes (null = fora da janela)
+        static Nivel de(long dias) {
+            if (dias < 0) return CRITICO;
+            if (dias <= 1) return URGENTE;
+            if (dias <= 3) return ATENCAO;
+            if (dias <= JANELA_DIAS) return AVISO;
+            return null;
+        }
+    }
+
+    // Ordem dentro do balde: prazo e id
+    private record Chave(long prazoEpochDia, long id) implements Comparable<Chave> {
+        @Override
+        public int compareTo(Chave outra) {
+            int c = Long.compare(prazoEpochDia, outra.prazoEpochDia);
+            return c != 0 ? c : Long.compare(id, outra.id);
+        }
+    }
+
+    // NotaDTO.prazoFinal vem formatado em dd/MM/yyyy
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private record Entrada(Nivel nivel, Chave chave) {}
+
+    static final IndiceAlertas INSTANCIA = new IndiceAlertas();
+
+    private final NotaRepository notaRepository = new NotaRepository();
+    private final StatusNotaRepository statusRepository = new StatusNotaRepository();
+
+    private final Map<Long, Entrada> entradas = new HashMap<>();
+    private final EnumMap<Nivel, TreeMap<Chave, NotaDTO>> baldes = new EnumMap<>(Nivel.class);
+
+    private boolean carregado;
+    private LocalDate dia;
+    private Set<Long> statusPendentes = Set.of();
+    private long versaoStatus = -1;
+    private long versaoEtiquetas = -1;
+    private final AtomicLong versao = new AtomicLong();
+
+    private IndiceAlertas() {
+        for (var nivel : Nivel.values()) baldes.put(nivel, new TreeMap<>());
+    }
+
+    long versao() {
+        return versao.get();
+    }
+
+    // Cópia dos baldes (cada lista em ordem de prazo). Os DTOs guardados nunca são
+    // alterados depois de inseridos, então podem ser serializados fora do lock
+    synchronized Map<Nivel, List<NotaDTO>> baldes() throws Exception {
+        var hoje = LocalDate.now();
+        if (!carregado
+                || versaoStatus != StatusNotaRepository.versaoCache()
+                || versaoEtiquetas != EtiquetaRepository.versaoCache()
+                || hoje.isBefore(dia)) {
+            carregar(hoje);
+        } else if (hoje.isAfter(dia)) {
+            virarDia(hoje);
+        }
+
+        var copia = new EnumMap<Nivel, List<NotaDTO>>(Nivel.class);
+        baldes.forEach((nivel, notas) -> copia.put(nivel, new ArrayList<>(notas.values())));
+        return copia;
+    }
+
+    // Nota criada ou alterada (DTO já relido do banco)
+    synchronized void aplicar(NotaDTO nota) {
+        if (!carregado) return; // a carga completa vai trazê-la
+        retirar(nota.getId());
+        inserir(nota);
+        versao.incrementAndGet();
+    }
+
+    synchronized void remover(Long id) {
+        if (!carregado) return;
+        retirar(id);
+        versao.incrementAndGet();
+    }
+
+    // Alterações em massa: recarregar no próximo acesso
+    synchronized void invalidar() {
+        carregado = false;
+        versao.incrementAndGet();
+    }
+
+    private void carregar(LocalDate hoje) throws Exception {
+        // Versões lidas antes da consulta: uma mudança concorrente força nova carga
+        versaoStatus = StatusNotaRepository.versaoCache();
+        versaoEtiquetas = EtiquetaRepository.versaoCache();
+        statusPendentes = lerStatusPendentes();
+
+        carregado = false;
+        entradas.clear();
+        baldes.values().forEach(TreeMap::clear);
+        dia = hoje;
+        if (!statusPendentes.isEmpty()) {
+            for (var nota : buscarPendentes(null, hoje.plusDays(JANELA_DIAS))) {
+                inserir(nota);
+            }
+        }
+        carregado = true;
+        versao.incrementAndGet();
+    }
+
+    // Um dia a mais: reclassificar o que já está na janela e trazer só quem entrou nela
+    private void virarDia(LocalDate hoje) throws Exception {
+        var anterior = dia;
+        dia = hoje;
+
+        var notas = new ArrayList<NotaDTO>();
+        baldes.values().forEach(b -> notas.addAll(b.values()));
+        entradas.clear();
+        baldes.values().forEach(TreeMap::clear);
+        notas.forEach(this::inserir);
+        versao.incrementAndGet();
+
+        if (statusPendentes.isEmpty()) return;
+        List<NotaDTO> entraram;
+        try {
+            entraram = buscarPendentes(anterior.plusDays(JANELA_DIAS + 1), hoje.plusDays(JANELA_DIAS));
+        } catch (Exception e) {
+            carregado = false; // sem as novas notas o índice estaria incompleto
+            throw e;
+        }
+        for (var nota : entraram) {
+            retirar(nota.getId());
+            inserir(nota);
+        }
+        versao.incrementAndGet();
+    }
+
+    private void inserir(NotaDTO nota) {
+        if (nota.getPrazoFinal() == null || !statusPendentes.contains(nota.getStatusId())) return;
+        LocalDate prazo;
+        try {
+            prazo = LocalDate.parse(nota.getPrazoFinal(), DATA_BR);
+        } catch (DateTimeParseException e) {
+            return;
+        }
+        long dias = ChronoUnit.DAYS.between(dia, prazo);
+        var nivel = Nivel.de(dias);
+        if (nivel == null) return;
+
+        // Sempre um DTO novo: quem recebeu o anterior em baldes() pode estar serializando
+        var guardada = resumo(nota);
+        guardada.setDiasRestantes((int) dias);
+        var chave = new Chave(prazo.toEpochDay(), nota.getId());
+        baldes.get(nivel).put(chave, guardada);
+        entradas.put(nota.getId(), new Entrada(nivel, chave));
+    }
+
+    // Cópia sem conteúdo: o índice não segura textos grandes nem altera o DTO de quem chamou
+    private static NotaDTO resumo(NotaDTO nota) {
+        var copia = new NotaDTO();
+        copia.setId(nota.getId());
+        copia.setTitulo(nota.getTitulo());
+        copia.setDataCriacao(nota.getDataCriacao());
+        copia.setDataAtualizacao(nota.getDataAtualizacao());
+        copia.setPrazoFinal(nota.getPrazoFinal());
+        copia.setEtiquetaId(nota.getEtiquetaId());
+        copia.setEtiquetaNome(nota.getEtiquetaNome());
+        copia.setStatusId(nota.getStatusId());
+        copia.setStatusNome(nota.getStatusNome());
+        copia.setStatusCor(nota.getStatusCor());
+        copia.setDiasRestantes(nota.getDiasRestantes());
+        return copia;
+    }
+
+    private void retirar(Long id) {
+        var entrada = entradas.remove(id);
+        if (entrada != null) baldes.get(entrada.nivel()).remove(entrada.chave());
+    }
+
+    private List<NotaDTO> buscarPendentes(LocalDate prazoDe, LocalDate prazoAte) throws Exception {
+        var filtro = new FiltroNotas();
+        filtro.getStatusIds().addAll(statusPendentes);
+        filtro.setPrazoDe(prazoDe);
+        filtro.setPrazoAte(prazoAte);
+        // O painel de alertas não exibe o conteúdo: projeção de resumo
+        return notaRepository.buscar(filtro, false);
+    }
+
+    // Pendente = status diferente de "Resolvido" e "Cancelado"
+    private Set<Long> lerStatusPendentes() throws Exception {
+        var ids = new HashSet<Long>();
+        for (var status : statusRepository.buscarTodos()) {
+            if (!status.getNome().equalsIgnoreCase("Resolvido")
+                    && !status.getNome().equalsIgnoreCase("Cancelado")) {
+                ids.add(status.getId());
+            }
+        }
+        return ids;
+    }
+}
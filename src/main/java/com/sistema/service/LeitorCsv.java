@@ -0,0 +1,85 @@
+package com.sistema.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV simples (RFC 4180): campos entre aspas, aspas duplicadas ("")
+ * e quebras de linha dentro de aspas. O separador (',' ou ';') é detectado
+ * pela primeira linha, para aceitar também planilhas exportadas em pt-BR.
+ *
+ * Cada registro leva a linha do arquivo em que começa: com linhas em branco e
+ * campos de várias linhas, o índice do registro não é a linha que o usuário vê.
+ */
+public final class LeitorCsv {
+
+    /** Campos de um registro e a linha física (a partir de 1) em que ele começa. */
+    public record Registro(int linha, List<String> campos) {}
+
+    private LeitorCsv() {}
+
+    public static List<Registro> ler(String texto) {
+        var registros = new ArrayList<Registro>();
+        if (texto == null || texto.isEmpty()) return registros;
+
+        // Ignorar BOM do Excel
+        if (texto.charAt(0) == '﻿') texto = texto.substring(1);
+        char separador = detectarSeparador(texto);
+
+        var registro = new ArrayList<String>();
+        var campo = new StringBuilder();
+        boolean entreAspas = false;
+        int linhaAtual = 1;
+        int inicioRegistro = 1;
+
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (entreAspas) {
+                if (c == '"') {
+                    if (i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        entreAspas = false;
+                    }
+                } else {
+                    // \r\n conta uma vez (no \n); \r sozinho também quebra a linha
+                    if (c == '\n' || (c == '\r' && (i + 1 >= texto.length() || texto.charAt(i + 1) != '\n'))) {
+                        linhaAtual++;
+                    }
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                registro.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < texto.length() && texto.charAt(i + 1) == '\n') i++;
+                registro.add(campo.toString());
+                campo.setLength(0);
+                adicionarSeNaoVazio(registros, inicioRegistro, registro);
+                registro = new ArrayList<>();
+                linhaAtual++;
+                inicioRegistro = linhaAtual;
+            } else {
+                campo.append(c);
+            }
+        }
+        registro.add(campo.toString());
+        adicionarSeNaoVazio(registros, inicioRegistro, registro);
+        return registros;
+    }
+
+    private static char detectarSeparador(String texto) {
+        int fim = texto.indexOf('\n');
+        var primeira = fim < 0 ? texto : texto.substring(0, fim);
+        return primeira.indexOf(';') >= 0 && primeira.indexOf(',') < 0 ? ';' : ',';
+    }
+
+    // Linhas em branco não contam como registro
+    private static void adicionarSeNaoVazio(List<Registro> registros, int linha, List<String> registro) {
+        if (registro.size() == 1 && registro.get(0).isBlank()) return;
+        registros.add(new Registro(linha, registro));
+    }
+}
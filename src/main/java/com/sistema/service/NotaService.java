@@ -1,52 +1,84 @@
 package com.sistema.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sistema.config.Configuracao;
 import com.sistema.model.*;
 import com.sistema.repository.*;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class NotaService {
+    // Limites da paginação
+    public static final int LIMITE_PADRAO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    // Máximo de linhas aceitas por requisição de importação
+    public static final int MAXIMO_IMPORTACAO = Configuracao.inteiro("notas.importacao.maxLinhas", 10_000);
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     private final NotaRepository notaRepository = new NotaRepository();
     private final EtiquetaRepository etiquetaRepository = new EtiquetaRepository();
     private final StatusNotaRepository statusRepository = new StatusNotaRepository();
 
     public List<NotaDTO> listarTodas() throws Exception {
-        var notas = notaRepository.buscarTodos();
-        var etiquetas = etiquetaRepository.buscarTodos().stream()
-                .collect(Collectors.toMap(Etiqueta::getId, e -> e));
-        var status = statusRepository.buscarTodos().stream()
-                .collect(Collectors.toMap(StatusNota::getId, s -> s));
-        var dtos = new ArrayList<NotaDTO>();
-        for (var n : notas) {
-            dtos.add(new NotaDTO(n, etiquetas.get(n.getEtiquetaId()), status.get(n.getStatusId())));
+        return listarTodas(true);
+    }
+
+    // comConteudo = false: projeção de resumo (telas de lista e alertas)
+    public List<NotaDTO> listarTodas(boolean comConteudo) throws Exception {
+        return notaRepository.buscar(new FiltroNotas(), comConteudo);
+    }
+
+    public Pagina<NotaDTO> listarPagina(Integer limite, String cursor) throws Exception {
+        return listarPagina(new FiltroNotas(), limite, cursor);
+    }
+
+    // Filtro aplicado no SQL: só as notas que atendem saem do banco
+    public Pagina<NotaDTO> listarPagina(FiltroNotas filtro, Integer limite, String cursor) throws Exception {
+        return listarPagina(filtro, limite, cursor, true);
+    }
+
+    public Pagina<NotaDTO> listarPagina(FiltroNotas filtro, Integer limite, String cursor, boolean comConteudo) throws Exception {
+        int tamanho = limite == null ? LIMITE_PADRAO : Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+        return notaRepository.buscarPagina(filtro, cursor, tamanho, comConteudo);
+    }
+
+    public List<NotaDTO> listarFiltradas(FiltroNotas filtro) throws Exception {
+        return listarFiltradas(filtro, true);
+    }
+
+    public List<NotaDTO> listarFiltradas(FiltroNotas filtro, boolean comConteudo) throws Exception {
+        return notaRepository.buscar(filtro, comConteudo);
+    }
+
+    // Busca textual (FTS5) com relevância, destaques e paginação
+    public Pagina<ResultadoBuscaDTO> buscarTexto(String texto, Integer limite, String cursor) throws Exception {
+        int tamanho = limite == null ? LIMITE_PADRAO : Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+        var pagina = notaRepository.buscarTexto(texto, cursor, tamanho);
+        var resultados = new ArrayList<ResultadoBuscaDTO>(pagina.getItens().size());
+        for (var o : pagina.getItens()) {
+            resultados.add(new ResultadoBuscaDTO(o.nota(), o.tituloDestacado(), o.trecho(), o.relevancia()));
         }
-        return dtos;
+        return new Pagina<>(resultados, pagina.getProximoCursor());
+    }
+
+    // Exportação em streaming (sem montar lista em memória)
+    public int exportar(FiltroNotas filtro, JsonGenerator gen, boolean ndjson) throws Exception {
+        return notaRepository.exportar(filtro, gen, ndjson);
     }
 
     public List<NotaDTO> listarPorEtiqueta(Long etiquetaId) throws Exception {
-        var notas = notaRepository.buscarPorEtiqueta(etiquetaId);
-        var etiquetasOpt = etiquetaRepository.buscarPorId(etiquetaId);
-        var etiquetas = new HashMap<Long, Etiqueta>();
-        etiquetasOpt.ifPresent(e -> etiquetas.put(e.getId(), e));
-        var status = statusRepository.buscarTodos().stream()
-                .collect(Collectors.toMap(StatusNota::getId, s -> s));
-        var dtos = new ArrayList<NotaDTO>();
-        for (var n : notas) {
-            dtos.add(new NotaDTO(n, etiquetas.get(n.getEtiquetaId()), status.get(n.getStatusId())));
-        }
-        return dtos;
+        var filtro = new FiltroNotas();
+        filtro.getEtiquetaIds().add(etiquetaId);
+        return notaRepository.buscar(filtro, true);
     }
 
     public Optional<NotaDTO> buscarPorId(Long id) throws Exception {
-        var notaOpt = notaRepository.buscarPorId(id);
-        if (notaOpt.isEmpty()) return Optional.empty();
-        var nota = notaOpt.get();
-        var etiquetaOpt = etiquetaRepository.buscarPorId(nota.getEtiquetaId());
-        var statusOpt = statusRepository.buscarPorId(nota.getStatusId());
-        return Optional.of(new NotaDTO(nota, etiquetaOpt.orElse(null), statusOpt.orElse(null)));
+        return notaRepository.buscarDetalhadaPorId(id);
     }
 
     public NotaDTO criar(Long etiquetaId, Long statusId, String titulo, String conteudo, String prazoFinalISO) throws Exception {
@@ -58,15 +90,144 @@ public class NotaService {
         var prazo = LocalDate.parse(prazoFinalISO, DateTimeFormatter.ISO_LOCAL_DATE);
         nota.setPrazoFinal(prazo);
         nota = notaRepository.salvar(nota);
-        var etiquetaOpt = etiquetaRepository.buscarPorId(etiquetaId);
-        var statusOpt = statusRepository.buscarPorId(statusId);
-        return new NotaDTO(nota, etiquetaOpt.orElse(null), statusOpt.orElse(null));
+        // Releitura com JOIN: traz etiqueta, status e as datas geradas pelo banco
+        var criada = notaRepository.buscarDetalhadaPorId(nota.getId())
+                .orElseThrow(() -> new IllegalStateException("Nota criada não encontrada"));
+        IndiceAlertas.INSTANCIA.aplicar(criada);
+        AgendaPrazos.reagendar(criada.getId(), statusId, prazo);
+        CanalEventos.publicar("nota.criada", Map.of("id", criada.getId()));
+        return criada;
+    }
+
+    /**
+     * Importação em lote. Etiquetas e status são carregados uma vez e cada linha
+     * é validada em memória; as válidas são gravadas em um único executeBatch.
+     * As inválidas voltam no resultado com o número da linha e o motivo.
+     */
+    public ResultadoImportacaoDTO importar(List<LinhaImportacao> linhas) throws Exception {
+        if (linhas.size() > MAXIMO_IMPORTACAO) {
+            throw new IllegalArgumentException("Limite de " + MAXIMO_IMPORTACAO + " notas por importação excedido");
+        }
+        var etiquetas = etiquetaRepository.buscarTodos().stream()
+                .map(Etiqueta::getId).collect(Collectors.toSet());
+        var status = statusRepository.buscarTodos().stream()
+                .map(StatusNota::getId).collect(Collectors.toSet());
+
+        var resultado = new ResultadoImportacaoDTO();
+        resultado.setRecebidas(linhas.size());
+        var validas = new ArrayList<Nota>(linhas.size());
+        for (var linha : linhas) {
+            var erro = validarLinha(linha, etiquetas, status);
+            if (erro != null) {
+                resultado.adicionarErro(linha.getLinha(), erro);
+                continue;
+            }
+            var nota = new Nota();
+            nota.setEtiquetaId(linha.getEtiquetaId());
+            nota.setStatusId(linha.getStatusId());
+            nota.setTitulo(linha.getTitulo().trim());
+            nota.setConteudo(linha.getConteudo());
+            nota.setPrazoFinal(lerPrazo(linha.getPrazoFinal()));
+            validas.add(nota);
+        }
+        resultado.setInseridas(notaRepository.salvarLote(validas));
+        if (resultado.getInseridas() > 0) {
+            IndiceAlertas.INSTANCIA.invalidar();
+            AgendaPrazos.invalidar();
+            CanalEventos.publicar("notas.lote", Map.of("operacao", "importacao", "quantidade", resultado.getInseridas()));
+        }
+        return resultado;
+    }
+
+    /**
+     * Importação a partir de CSV com cabeçalho. Colunas reconhecidas:
+     * titulo, etiquetaId, statusId, prazoFinal e conteudo (separador ',' ou ';').
+     */
+    public ResultadoImportacaoDTO importarCsv(String csv) throws Exception {
+        var registros = LeitorCsv.ler(csv);
+        if (registros.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo CSV vazio");
+        }
+        if (registros.size() - 1 > MAXIMO_IMPORTACAO) {
+            throw new IllegalArgumentException("Limite de " + MAXIMO_IMPORTACAO + " notas por importação excedido");
+        }
+        var colunas = new HashMap<String, Integer>();
+        var cabecalho = registros.get(0).campos();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            colunas.put(cabecalho.get(i).trim().toLowerCase().replace("_", ""), i);
+        }
+        for (var obrigatoria : List.of("titulo", "etiquetaid", "statusid", "prazofinal")) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho: " + obrigatoria);
+            }
+        }
+
+        var linhas = new ArrayList<LinhaImportacao>(registros.size() - 1);
+        var invalidas = new ArrayList<LinhaImportacao>();
+        for (int i = 1; i < registros.size(); i++) {
+            var registro = registros.get(i).campos();
+            var linha = new LinhaImportacao();
+            // Linha do arquivo (linhas em branco e campos com quebra de linha contam)
+            linha.setLinha(registros.get(i).linha());
+            linha.setTitulo(campo(registro, colunas.get("titulo")));
+            linha.setPrazoFinal(campo(registro, colunas.get("prazofinal")));
+            linha.setConteudo(campo(registro, colunas.get("conteudo")));
+            try {
+                linha.setEtiquetaId(lerId(campo(registro, colunas.get("etiquetaid"))));
+                linha.setStatusId(lerId(campo(registro, colunas.get("statusid"))));
+            } catch (NumberFormatException e) {
+                invalidas.add(linha);
+                continue;
+            }
+            linhas.add(linha);
+        }
+
+        var resultado = importar(linhas);
+        resultado.setRecebidas(resultado.getRecebidas() + invalidas.size());
+        for (var linha : invalidas) {
+            resultado.adicionarErro(linha.getLinha(), "Etiqueta ou status não numérico");
+        }
+        resultado.getErros().sort(Comparator.comparingInt(ResultadoImportacaoDTO.ErroLinha::getLinha));
+        return resultado;
+    }
+
+    private String validarLinha(LinhaImportacao linha, Set<Long> etiquetas, Set<Long> status) {
+        if (linha.getTitulo() == null || linha.getTitulo().isBlank()) return "Título obrigatório";
+        if (linha.getEtiquetaId() == null || !etiquetas.contains(linha.getEtiquetaId())) {
+            return "Etiqueta inexistente: " + linha.getEtiquetaId();
+        }
+        if (linha.getStatusId() == null || !status.contains(linha.getStatusId())) {
+            return "Status inexistente: " + linha.getStatusId();
+        }
+        if (linha.getPrazoFinal() == null || linha.getPrazoFinal().isBlank()) return "Prazo final obrigatório";
+        try {
+            lerPrazo(linha.getPrazoFinal());
+        } catch (DateTimeParseException e) {
+            return "Prazo final inválido: " + linha.getPrazoFinal();
+        }
+        return null;
+    }
+
+    // Aceita ISO (yyyy-MM-dd) ou o formato brasileiro (dd/MM/yyyy)
+    private LocalDate lerPrazo(String valor) {
+        var texto = valor.trim();
+        return texto.contains("/") ? LocalDate.parse(texto, DATA_BR) : LocalDate.parse(texto, DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    private String campo(List<String> registro, Integer indice) {
+        if (indice == null || indice >= registro.size()) return null;
+        var valor = registro.get(indice);
+        return valor.isBlank() ? null : valor;
+    }
+
+    private Long lerId(String valor) {
+        return valor == null ? null : Long.valueOf(valor.trim());
     }
 
     public Optional<NotaDTO> atualizar(Long id, Long etiquetaId, Long statusId, String titulo, String conteudo, String prazoFinalISO) throws Exception {
-        var notaOpt = notaRepository.buscarPorId(id);
-        if (notaOpt.isEmpty()) return Optional.empty();
-        var nota = notaOpt.get();
+        // UPDATE direto: "nenhuma linha alterada" já indica nota inexistente
+        var nota = new Nota();
+        nota.setId(id);
         nota.setEtiquetaId(etiquetaId);
         nota.setStatusId(statusId);
         nota.setTitulo(titulo);
@@ -75,12 +236,56 @@ public class NotaService {
         nota.setPrazoFinal(prazo);
         var ok = notaRepository.atualizar(nota);
         if (!ok) return Optional.empty();
-        var etiquetaOpt = etiquetaRepository.buscarPorId(etiquetaId);
-        var statusOpt = statusRepository.buscarPorId(statusId);
-        return Optional.of(new NotaDTO(nota, etiquetaOpt.orElse(null), statusOpt.orElse(null)));
+        var atualizada = notaRepository.buscarDetalhadaPorId(id);
+        atualizada.ifPresentOrElse(IndiceAlertas.INSTANCIA::aplicar, () -> IndiceAlertas.INSTANCIA.remover(id));
+        if (atualizada.isPresent()) AgendaPrazos.reagendar(id, statusId, prazo); else AgendaPrazos.remover(id);
+        CanalEventos.publicar("nota.atualizada", Map.of("id", id));
+        return atualizada;
+    }
+
+    // Alteração em massa de status, etiqueta e/ou prazo; devolve a quantidade de notas alteradas
+    public int atualizarLote(FiltroNotas filtro, Long statusId, Long etiquetaId, String prazoFinalISO) throws Exception {
+        if (statusId != null && statusRepository.buscarPorId(statusId).isEmpty()) {
+            throw new IllegalArgumentException("Status inexistente: " + statusId);
+        }
+        if (etiquetaId != null && etiquetaRepository.buscarPorId(etiquetaId).isEmpty()) {
+            throw new IllegalArgumentException("Etiqueta inexistente: " + etiquetaId);
+        }
+        var prazo = prazoFinalISO == null || prazoFinalISO.isBlank() ? null
+                : LocalDate.parse(prazoFinalISO, DateTimeFormatter.ISO_LOCAL_DATE);
+        int alteradas = notaRepository.atualizarLote(filtro, statusId, etiquetaId, prazo);
+        if (alteradas > 0) {
+            IndiceAlertas.INSTANCIA.invalidar();
+            AgendaPrazos.invalidar();
+            CanalEventos.publicar("notas.lote", Map.of("operacao", "atualizacao", "quantidade", alteradas));
+        }
+        return alteradas;
+    }
+
+    public int deletarLote(FiltroNotas filtro) throws Exception {
+        int excluidas = notaRepository.deletarLote(filtro);
+        if (excluidas > 0) {
+            IndiceAlertas.INSTANCIA.invalidar();
+            AgendaPrazos.invalidar();
+            CanalEventos.publicar("notas.lote", Map.of("operacao", "exclusao", "quantidade", excluidas));
+        }
+        return excluidas;
+    }
+
+    // Comprimir as notas antigas (executado em segundo plano na inicialização)
+    public int comprimirConteudoExistente() throws Exception {
+        return notaRepository.comprimirExistentes(
+                Configuracao.inteiro("notas.compressao.lote", 200),
+                Configuracao.longo("notas.compressao.pausaMs", 50));
     }
 
     public boolean deletar(Long id) throws Exception {
-        return notaRepository.deletar(id);
+        var excluida = notaRepository.deletar(id);
+        if (excluida) {
+            IndiceAlertas.INSTANCIA.remover(id);
+            AgendaPrazos.remover(id);
+            CanalEventos.publicar("nota.excluida", Map.of("id", id));
+        }
+        return excluida;
     }
 }
\ No newline at end of file
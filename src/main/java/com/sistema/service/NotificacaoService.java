@@ -1,39 +1,30 @@
 package com.sistema.service;
 
 import com.sistema.model.*;
-import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class NotificacaoService {
     
-    private final NotaService notaService;
-    
-    public NotificacaoService() {
-        this.notaService = new NotaService();
+    private final IndiceAlertas indice = IndiceAlertas.INSTANCIA;
+
+    // Versão dos baldes de alerta (para o ETag): lida antes de gerarAlertas()
+    public static long versaoAlertas() {
+        return IndiceAlertas.INSTANCIA.versao();
     }
     
     /**
      * Gerar alertas agrupados por urgência
      * Retorna lista ordenada por prioridade (mais urgente primeiro)
+     *
+     * As notas pendentes já ficam separadas por nível em memória (IndiceAlertas):
+     * aqui só se monta a resposta, sem consultar o banco.
      */
     public List<AlertaDTO> gerarAlertas() throws Exception {
         List<AlertaDTO> alertas = new ArrayList<>();
-        LocalDate hoje = LocalDate.now();
-        
-        // Buscar apenas notas pendentes (status diferente de "Resolvido" e "Cancelado")
-        List<NotaDTO> notasPendentes = notaService.listarTodas()
-            .stream()
-            .filter(n -> n.getStatusNome() != null
-                      && !n.getStatusNome().equalsIgnoreCase("Resolvido")
-                      && !n.getStatusNome().equalsIgnoreCase("Cancelado"))
-            .collect(Collectors.toList());
+        var baldes = indice.baldes();
         
         // 1. CRÍTICO - Atrasadas (prazo vencido)
-        List<NotaDTO> atrasadas = notasPendentes.stream()
-            .filter(n -> n.getDiasRestantes() != null && n.getDiasRestantes() < 0)
-            .sorted(Comparator.comparing(NotaDTO::getDiasRestantes))
-            .collect(Collectors.toList());
+        List<NotaDTO> atrasadas = baldes.get(IndiceAlertas.Nivel.CRITICO);
         
         if (!atrasadas.isEmpty()) {
             alertas.add(new AlertaDTO(
@@ -47,10 +38,7 @@ public class NotificacaoService {
         }
         
         // 2. URGENTE - Vence em 1 dia
-        List<NotaDTO> urgente = notasPendentes.stream()
-            .filter(n -> n.getDiasRestantes() != null && n.getDiasRestantes() >= 0 && n.getDiasRestantes() <= 1)
-            .sorted(Comparator.comparing(NotaDTO::getPrazoFinal))
-            .collect(Collectors.toList());
+        List<NotaDTO> urgente = baldes.get(IndiceAlertas.Nivel.URGENTE);
         
         if (!urgente.isEmpty()) {
             alertas.add(new AlertaDTO(
@@ -64,10 +52,7 @@ public class NotificacaoService {
         }
         
         // 3. ATENÇÃO - Vence em 2-3 dias
-        List<NotaDTO> atencao = notasPendentes.stream()
-            .filter(n -> n.getDiasRestantes() != null && n.getDiasRestantes() >= 2 && n.getDiasRestantes() <= 3)
-            .sorted(Comparator.comparing(NotaDTO::getPrazoFinal))
-            .collect(Collectors.toList());
+        List<NotaDTO> atencao = baldes.get(IndiceAlertas.Nivel.ATENCAO);
         
         if (!atencao.isEmpty()) {
             alertas.add(new AlertaDTO(
@@ -81,10 +66,7 @@ public class NotificacaoService {
         }
         
         // 4. AVISO - Vence em 4-5 dias
-        List<NotaDTO> aviso = notasPendentes.stream()
-            .filter(n -> n.getDiasRestantes() != null && n.getDiasRestantes() >= 4 && n.getDiasRestantes() <= 5)
-            .sorted(Comparator.comparing(NotaDTO::getPrazoFinal))
-            .collect(Collectors.toList());
+        List<NotaDTO> aviso = baldes.get(IndiceAlertas.Nivel.AVISO);
         
         if (!aviso.isEmpty()) {
             alertas.add(new AlertaDTO(
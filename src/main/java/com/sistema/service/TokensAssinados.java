@@ -0,0 +1,203 @@
+package com.sistema.service;
+
+import com.sistema.config.Configuracao;
+import com.sistema.config.DatabaseConfig;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Tokens de sessão sem estado (auth.tokens.modo=assinado).
+ *
+ * Formato: {@code s1.<usuarioId>.<expiraEmSegundos>.<epoca>.<nonce>.<hmac>}, com
+ * HMAC-SHA256 sobre tudo antes do último ponto. Validar é só CPU: conferir a
+ * assinatura, a expiração e se a época do token ainda é a época do usuário.
+ *
+ * Revogação: cada usuário tem uma época (0 se nunca revogado) guardada em
+ * memória. Logout e desativação incrementam a época, o que invalida todos os
+ * tokens emitidos antes para aquele usuário. A alteração é gravada em
+ * tokens_epoca, e cada instância relê a tabela a cada
+ * auth.tokens.recarregarSegundos para enxergar revogações feitas pelas outras.
+ *
+ * As instâncias que validam os mesmos tokens precisam do mesmo
+ * auth.tokens.segredo; sem ele é gerada uma chave aleatória e os tokens deixam
+ * de valer quando a aplicação reinicia.
+ */
+final class TokensAssinados {
+
+    private static final String PREFIXO = "s1";
+    private static final String ALGORITMO = "HmacSHA256";
+
+    static final boolean ATIVO = "assinado".equalsIgnoreCase(Configuracao.texto("auth.tokens.modo", "sessao"));
+    /**
+     * Tokens já emitidos continuam válidos no modo sessao quando há segredo fixo
+     * (volta de assinado para sessao sem derrubar ninguém). Nesse caso as épocas
+     * também são carregadas e as revogações gravadas, senão um token revogado
+     * voltaria a valer. Sem segredo fixo a chave é aleatória e nenhum vale.
+     */
+    static final boolean ACEITOS = ATIVO || !Configuracao.texto("auth.tokens.segredo", "").isBlank();
+    private static final long VALIDADE_SEGUNDOS = Configuracao.longo("auth.tokens.validadeHoras", 24) * 3600;
+    private static final long RECARREGAR_SEGUNDOS = Configuracao.longo("auth.tokens.recarregarSegundos", 30);
+
+    private static final SecretKeySpec CHAVE = new SecretKeySpec(lerSegredo(), ALGORITMO);
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+
+    // Mac não é thread-safe: uma instância por thread
+    private static final ThreadLocal<Mac> MAC = ThreadLocal.withInitial(() -> {
+        try {
+            var mac = Mac.getInstance(ALGORITMO);
+            mac.init(CHAVE);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC indisponível", e);
+        }
+    });
+
+    // usuario_id -> época atual (ausente = 0)
+    private static volatile Map<Long, Long> epocas = Map.of();
+
+    private static final LongAdder VALIDOS = new LongAdder();
+    private static final LongAdder REJEITADOS = new LongAdder();
+    private static final LongAdder REVOGACOES = new LongAdder();
+
+    private TokensAssinados() {}
+
+    // Carregar as épocas e agendar a releitura periódica (chamado uma vez, na partida)
+    static void iniciar() throws SQLException {
+        recarregar();
+        if (RECARREGAR_SEGUNDOS <= 0) return;
+        var agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "tokens-epoca");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(() -> {
+            try {
+                recarregar();
+            } catch (SQLException e) {
+                System.err.println("⚠️  Falha ao recarregar épocas de tokens: " + e.getMessage());
+            }
+        }, RECARREGAR_SEGUNDOS, RECARREGAR_SEGUNDOS, TimeUnit.SECONDS);
+    }
+
+    static String emitir(Long usuarioId) {
+        long expira = System.currentTimeMillis() / 1000 + VALIDADE_SEGUNDOS;
+        var nonce = new byte[12];
+        ALEATORIO.nextBytes(nonce);
+        var corpo = PREFIXO + "." + usuarioId + "." + expira + "." + epocaDe(usuarioId) + "." + BASE64.encodeToString(nonce);
+        return corpo + "." + BASE64.encodeToString(assinar(corpo));
+    }
+
+    // Id do usuário se o token for autêntico, não expirado e não revogado
+    static Optional<Long> validar(String token) {
+        var usuarioId = extrair(token);
+        if (usuarioId.isPresent()) VALIDOS.increment(); else REJEITADOS.increment();
+        return usuarioId;
+    }
+
+    private static Optional<Long> extrair(String token) {
+        if (!ACEITOS || token == null || !token.startsWith(PREFIXO + ".")) return Optional.empty();
+        int ultimoPonto = token.lastIndexOf('.');
+        var partes = token.substring(0, ultimoPonto).split("\\.");
+        if (partes.length != 5) return Optional.empty();
+
+        byte[] assinatura;
+        try {
+            assinatura = BASE64_DECODER.decode(token.substring(ultimoPonto + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        var esperada = assinar(token.substring(0, ultimoPonto));
+        if (!MessageDigest.isEqual(esperada, assinatura)) return Optional.empty();
+
+        try {
+            long usuarioId = Long.parseLong(partes[1]);
+            long expira = Long.parseLong(partes[2]);
+            long epoca = Long.parseLong(partes[3]);
+            if (expira <= System.currentTimeMillis() / 1000) return Optional.empty();
+            if (epoca != epocaDe(usuarioId)) return Optional.empty();
+            return Optional.of(usuarioId);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Invalidar todos os tokens já emitidos para o usuário
+    static synchronized void revogar(Long usuarioId) throws SQLException {
+        long nova = DatabaseConfig.escrever(conn -> {
+            try (var stmt = conn.prepareStatement("""
+                    INSERT INTO tokens_epoca (usuario_id, epoca) VALUES (?, 1)
+                    ON CONFLICT(usuario_id) DO UPDATE SET epoca = epoca + 1
+                    RETURNING epoca
+                    """)) {
+                stmt.setLong(1, usuarioId);
+                try (var rs = stmt.executeQuery()) {
+                    rs.next();
+                    return rs.getLong(1);
+                }
+            }
+        });
+        var copia = new HashMap<>(epocas);
+        copia.merge(usuarioId, nova, Math::max);
+        epocas = Map.copyOf(copia);
+        REVOGACOES.increment();
+    }
+
+    private static synchronized void recarregar() throws SQLException {
+        var lidas = new HashMap<Long, Long>();
+        try (var conn = DatabaseConfig.getConnection();
+             var stmt = conn.prepareStatement("SELECT usuario_id, epoca FROM tokens_epoca");
+             var rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                lidas.put(rs.getLong(1), rs.getLong(2));
+            }
+        }
+        epocas = Map.copyOf(lidas);
+    }
+
+    private static long epocaDe(Long usuarioId) {
+        return epocas.getOrDefault(usuarioId, 0L);
+    }
+
+    private static byte[] assinar(String corpo) {
+        return MAC.get().doFinal(corpo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] lerSegredo() {
+        var segredo = Configuracao.texto("auth.tokens.segredo", "");
+        if (!segredo.isBlank()) return segredo.getBytes(StandardCharsets.UTF_8);
+
+        var aleatorio = new byte[32];
+        new SecureRandom().nextBytes(aleatorio);
+        if ("assinado".equalsIgnoreCase(Configuracao.texto("auth.tokens.modo", "sessao"))) {
+            System.err.println("⚠️  auth.tokens.segredo não definido: chave aleatória, tokens perdem a validade ao reiniciar");
+        }
+        return aleatorio;
+    }
+
+    static Map<String, Object> estatisticas() {
+        var dados = new LinkedHashMap<String, Object>();
+        dados.put("nome", "tokens");
+        dados.put("ativo", ATIVO);
+        dados.put("aceitos", ACEITOS);
+        dados.put("usuariosRevogados", epocas.size());
+        dados.put("validos", VALIDOS.sum());
+        dados.put("rejeitados", REJEITADOS.sum());
+        dados.put("revogacoes", REVOGACOES.sum());
+        return dados;
+    }
+}
@@ -1,11 +1,12 @@
 package com.sistema.service;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
+import com.sistema.config.HashSenhas;
 import com.sistema.model.Usuario;
 import com.sistema.model.UsuarioDTO;
 import com.sistema.repository.UsuarioRepository;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -42,11 +43,12 @@ public class UsuarioService {
         }
         
         // Hash da senha
-        var senhaHash = BCrypt.withDefaults().hashToString(12, senha.toCharArray());
+        var senhaHash = HashSenhas.gerar(senha);
         
         // Criar usuário
         var usuario = new Usuario(nome, email, telefone, senhaHash);
         var usuarioSalvo = repository.salvar(usuario);
+        CanalEventos.publicar("usuario.alterado", Map.of("id", usuarioSalvo.getId()));
         
         return new UsuarioDTO(usuarioSalvo);
     }
@@ -81,6 +83,8 @@ public class UsuarioService {
         usuario.setTelefone(telefone);
 
         repository.atualizar(usuario);
+        CacheSessoes.invalidarUsuario(id); // dados (ou status) do usuário mudaram
+        CanalEventos.publicar("usuario.alterado", Map.of("id", id));
 
         return Optional.of(new UsuarioDTO(usuario));
     }
@@ -121,10 +125,12 @@ public class UsuarioService {
         usuario.setTelefone(telefone);
 
         // Hash da nova senha
-        var novaSenhaHash = BCrypt.withDefaults().hashToString(12, novaSenha.toCharArray());
+        var novaSenhaHash = HashSenhas.gerar(novaSenha);
         usuario.setSenhaHash(novaSenhaHash);
 
         repository.atualizar(usuario);
+        CacheSessoes.invalidarUsuario(id); // dados (ou status) do usuário mudaram
+        CanalEventos.publicar("usuario.alterado", Map.of("id", id));
 
         return Optional.of(new UsuarioDTO(usuario));
     }
@@ -161,6 +167,11 @@ public class UsuarioService {
         usuario.setAtivo(ativo);
 
         repository.atualizar(usuario);
+        CacheSessoes.invalidarUsuario(id); // dados (ou status) do usuário mudaram
+        CanalEventos.publicar("usuario.alterado", Map.of("id", id));
+        if (!ativo) {
+            revogarTokens(id);
+        }
 
         return Optional.of(new UsuarioDTO(usuario));
     }
@@ -202,10 +213,15 @@ public class UsuarioService {
         usuario.setAtivo(ativo);
 
         // Hash da nova senha
-        var novaSenhaHash = BCrypt.withDefaults().hashToString(12, novaSenha.toCharArray());
+        var novaSenhaHash = HashSenhas.gerar(novaSenha);
         usuario.setSenhaHash(novaSenhaHash);
 
         repository.atualizar(usuario);
+        CacheSessoes.invalidarUsuario(id); // dados (ou status) do usuário mudaram
+        CanalEventos.publicar("usuario.alterado", Map.of("id", id));
+        if (!ativo) {
+            revogarTokens(id);
+        }
 
         return Optional.of(new UsuarioDTO(usuario));
     }
@@ -221,10 +237,7 @@ public class UsuarioService {
         var usuario = usuarioOpt.get();
         
         // Verificar senha atual
-        var verificador = BCrypt.verifyer();
-        var resultado = verificador.verify(senhaAtual.toCharArray(), usuario.getSenhaHash());
-        
-        if (!resultado.verified) {
+        if (!HashSenhas.verificar(senhaAtual, usuario.getSenhaHash())) {
             throw new IllegalArgumentException("Senha atual incorreta");
         }
         
@@ -234,14 +247,20 @@ public class UsuarioService {
         }
         
         // Hash da nova senha
-        var novaSenhaHash = BCrypt.withDefaults().hashToString(12, novaSenha.toCharArray());
+        var novaSenhaHash = HashSenhas.gerar(novaSenha);
         
         return repository.atualizarSenha(id, novaSenhaHash);
     }
     
     // Deletar usuário
     public boolean deletar(Long id) throws SQLException {
-        return repository.desativar(id); // Soft delete
+        var desativado = repository.desativar(id); // Soft delete
+        CacheSessoes.invalidarUsuario(id);
+        if (desativado) {
+            revogarTokens(id);
+            CanalEventos.publicar("usuario.alterado", Map.of("id", id));
+        }
+        return desativado;
     }
     
     // Autenticar usuário (retorna usuario se senha correta)
@@ -254,11 +273,8 @@ public class UsuarioService {
 
         var usuario = usuarioOpt.get();
 
-        // Verificar senha primeiro
-        var verificador = BCrypt.verifyer();
-        var resultado = verificador.verify(senha.toCharArray(), usuario.getSenhaHash());
-
-        if (!resultado.verified) {
+        // Verificar senha primeiro (no executor de senhas, fora da thread da requisição)
+        if (!HashSenhas.verificar(senha, usuario.getSenhaHash())) {
             return Optional.empty();
         }
 
@@ -267,9 +283,31 @@ public class UsuarioService {
             throw new IllegalArgumentException("Usuário desativado. Entre em contato com o administrador do sistema.");
         }
 
+        // Hash com custo abaixo do atual: refazer em segundo plano, sem atrasar o login
+        if (HashSenhas.precisaRehash(usuario.getSenhaHash())) {
+            refazerHash(usuario.getId(), usuario.getSenhaHash(), senha);
+        }
+
         return Optional.of(usuario);
     }
     
+    private void refazerHash(Long id, String hashAtual, String senha) {
+        HashSenhas.gerarAsync(senha)
+            .thenCompose(novoHash -> repository.substituirSenhaHash(id, hashAtual, novoHash))
+            .exceptionally(e -> {
+                // Sem problema: o hash antigo continua válido e tenta-se de novo no próximo login
+                System.err.println("⚠️  Rehash da senha do usuário " + id + " adiado: " + e.getMessage());
+                return false;
+            });
+    }
+
+    // Usuário desativado: tokens assinados já emitidos deixam de valer
+    private void revogarTokens(Long id) throws SQLException {
+        if (TokensAssinados.ACEITOS) {
+            TokensAssinados.revogar(id);
+        }
+    }
+
     // Validações
     private void validarDados(String nome, String email, String senha) {
         if (nome == null || nome.trim().isEmpty()) {
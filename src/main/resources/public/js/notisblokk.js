@@ -65,6 +65,7 @@ let ordenacaoAtual = { coluna: null, direcao: 'asc' };
     carregarNotas(),
     carregarStatusNoSelect()
   ]);
+  conectarEventos();
  
    // Eventos para checkboxes das colunas
    document.querySelectorAll('#menuColunas input[type="checkbox"]').forEach(checkbox => {
@@ -95,6 +96,42 @@ let ordenacaoAtual = { coluna: null, direcao: 'asc' };
   // carregamentos executados em Promise.all no início do DOMContentLoaded
  });
 
+// ===== Eventos do servidor (SSE) =====
+// Notas e alertas só são relidos quando o servidor avisa uma alteração: aba parada não consulta o banco
+let eventos = null;
+let recargaPendente = null;
+
+function conectarEventos() {
+  if (!window.EventSource) return;
+  // Autenticado pelo cookie auth_token (EventSource não envia o header Authorization)
+  eventos = new EventSource('/api/eventos');
+  let conectouAntes = false;
+  eventos.addEventListener('open', () => {
+    // Reconexão: algo pode ter mudado enquanto a conexão estava caída
+    if (conectouAntes) agendarRecarga();
+    conectouAntes = true;
+  });
+  ['nota.criada', 'nota.atualizada', 'nota.excluida', 'notas.lote', 'alerta'].forEach(tipo => {
+    eventos.addEventListener(tipo, agendarRecarga);
+  });
+}
+
+// Agrupar rajadas de eventos (ex.: importação) em uma recarga só
+function agendarRecarga() {
+  clearTimeout(recargaPendente);
+  recargaPendente = setTimeout(() => {
+    carregarNotas();
+    carregarAlertas();
+  }, 300);
+}
+
+// Depois de uma ação do próprio usuário: com o stream aberto, o evento dela já dispara a recarga
+function aposAlteracao() {
+  if (eventos && eventos.readyState === EventSource.OPEN) return;
+  carregarNotas();
+  carregarAlertas();
+}
+
 // ===== Alertas =====
 async function carregarAlertas() {
   const container = document.getElementById('alertasContainer');
@@ -241,7 +278,9 @@ function toggleAlertas() {
 // ===== Etiquetas =====
 async function carregarEtiquetas() {
   try {
-    const resp = await fetch(api.etiquetas);
+    const resp = await fetch(api.etiquetas, {
+      headers: { 'Authorization': `Bearer ${getToken()}` }
+    });
     const json = await resp.json();
     if (!json.sucesso) throw new Error(json.mensagem || 'Falha ao obter etiquetas');
     state.etiquetas = json.dados || [];
@@ -391,7 +430,10 @@ function atualizarContadorNotas(total) {
 function excluirEtiqueta(id) {
   const ok = confirm('Excluir etiqueta?');
   if (!ok) return;
-  fetch(`${api.etiquetas}/${id}`, { method: 'DELETE' })
+  fetch(`${api.etiquetas}/${id}`, {
+    method: 'DELETE',
+    headers: { 'Authorization': `Bearer ${getToken()}` }
+  })
     .then(r => r.json())
     .then(j => {
       if (!j.sucesso) throw new Error(j.mensagem || 'Falha ao excluir');
@@ -406,7 +448,10 @@ function modalNovaEtiqueta() {
   if (!nome) return;
   fetch(api.etiquetas, {
     method: 'POST',
-    headers: { 'Content-Type': 'application/json' },
+    headers: {
+      'Content-Type': 'application/json',
+      'Authorization': `Bearer ${getToken()}`
+    },
     body: JSON.stringify({ nome })
   })
     .then(r => r.json())
@@ -423,10 +468,11 @@ async function carregarNotas() {
   if (!tbody) return;
 
   try {
-    // Usar etiqueta selecionada do state
-    let url = api.notas;
+    // Usar etiqueta selecionada do state (filtro aplicado no servidor)
+    // resumo=true: a tabela não exibe o conteúdo, que nem é lido do banco
+    let url = `${api.notas}?resumo=true`;
     if (state.etiquetaSelecionada) {
-      url = `${api.notas}/etiqueta/${state.etiquetaSelecionada}`;
+      url += `&etiqueta=${state.etiquetaSelecionada}`;
     }
 
     const response = await fetch(url, {
@@ -576,8 +622,7 @@ async function excluirNota(id) {
 
     if (json.sucesso) {
       mostrarSucesso('Nota excluída com sucesso!');
-      carregarNotas();
-      carregarAlertas();
+      aposAlteracao();
     } else {
       mostrarErro(json.mensagem || 'Erro ao excluir nota');
     }
@@ -612,8 +657,7 @@ async function salvarNota(event) {
     if (resultado.sucesso) {
       mostrarSucesso(id ? 'Nota atualizada!' : 'Nota criada!');
       fecharModal();
-      carregarNotas();
-      carregarAlertas();
+      aposAlteracao();
     } else {
       mostrarErro(resultado.mensagem);
     }
@@ -819,16 +863,18 @@ async function excluirSelecionadas() {
   if (ids.length === 0) return;
   if (!confirm(`Deseja realmente excluir ${ids.length} nota(s)?`)) return;
   try {
-    const promises = ids.map(id =>
-      fetch(`/api/notas/${id}`, {
-        method: 'DELETE',
-        headers: { 'Authorization': `Bearer ${getToken()}` }
-      })
-    );
-    await Promise.all(promises);
-    mostrarSucesso(`${ids.length} nota(s) excluída(s) com sucesso!`);
-    carregarNotas();
-    carregarAlertas();
+    const response = await fetch(`${api.notas}/lote`, {
+      method: 'DELETE',
+      headers: {
+        'Content-Type': 'application/json',
+        'Authorization': `Bearer ${getToken()}`
+      },
+      body: JSON.stringify({ ids: ids.map(Number) })
+    });
+    const resultado = await response.json();
+    if (!resultado.sucesso) throw new Error(resultado.mensagem);
+    mostrarSucesso(`${resultado.dados.excluidas} nota(s) excluída(s) com sucesso!`);
+    aposAlteracao();
   } catch (error) {
     console.error('Erro ao excluir notas:', error);
     mostrarErro('Erro ao excluir notas');
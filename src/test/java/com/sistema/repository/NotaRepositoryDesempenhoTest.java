@@ -0,0 +1,208 @@
+package com.sistema.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sistema.config.DatabaseConfig;
+import com.sistema.model.Etiqueta;
+import com.sistema.model.FiltroNotas;
+import com.sistema.model.Nota;
+import com.sistema.model.NotaDTO;
+import com.sistema.model.StatusNota;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Leitura de notas com etiqueta e status: caminho antigo (notas, todas as
+ * etiquetas e todos os status em três consultas, juntados por dois HashMaps)
+ * contra a consulta única com LEFT JOIN de buscar/buscarDetalhadaPorId.
+ *
+ * Confere que os dois caminhos devolvem o mesmo resultado e imprime o tempo
+ * mediano de cada um sobre um banco temporário semeado aqui.
+ */
+class NotaRepositoryDesempenhoTest {
+
+    private static final int ETIQUETAS = 50;
+    private static final int NOTAS = 5_000;
+    private static final int AQUECIMENTO = 5;
+    private static final int RODADAS = 20;
+    private static final int LEITURAS_POR_ID = 500;
+
+    @TempDir
+    static Path diretorio;
+
+    private static final NotaRepository notas = new NotaRepository();
+    private static final List<Long> ids = new ArrayList<>();
+
+    @BeforeAll
+    static void semear() throws Exception {
+        // Antes de qualquer uso de DatabaseConfig: a URL é lida na inicialização da classe
+        System.setProperty("db.url", "jdbc:sqlite:" + diretorio.resolve("desempenho.db"));
+        DatabaseConfig.inicializar();
+
+        var etiquetaRepository = new EtiquetaRepository();
+        var etiquetaIds = new ArrayList<Long>();
+        for (int i = 0; i < ETIQUETAS; i++) {
+            etiquetaIds.add(etiquetaRepository.salvar(new Etiqueta("Etiqueta " + i)).getId());
+        }
+        var statusIds = new StatusNotaRepository().buscarTodos().stream().map(StatusNota::getId).toList();
+
+        var lote = new ArrayList<Nota>(NOTAS);
+        for (int i = 0; i < NOTAS; i++) {
+            var nota = new Nota();
+            nota.setEtiquetaId(etiquetaIds.get(i % etiquetaIds.size()));
+            nota.setStatusId(statusIds.get(i % statusIds.size()));
+            nota.setTitulo("Nota " + i);
+            nota.setConteudo("Conteúdo da nota " + i + " ".repeat(i % 200));
+            nota.setPrazoFinal(LocalDate.now().plusDays(i % 30));
+            lote.add(nota);
+        }
+        assertEquals(NOTAS, notas.salvarLote(lote));
+        for (var nota : notas.buscarTodos()) ids.add(nota.getId());
+    }
+
+    @AfterAll
+    static void fechar() {
+        DatabaseConfig.fechar();
+    }
+
+    @Test
+    void listagemComJoinEquivaleAoCaminhoAntigoEMedeOsDois() throws Exception {
+        var antigo = porId(listarComMapas());
+        var novo = porId(notas.buscar(new FiltroNotas(), true));
+        assertEquals(NOTAS, antigo.size());
+        assertEquals(antigo.keySet(), novo.keySet());
+        antigo.forEach((id, esperada) -> assertMesmaNota(esperada, novo.get(id)));
+
+        long nanosAntigo = mediana(this::listarComMapas);
+        long nanosNovo = mediana(() -> notas.buscar(new FiltroNotas(), true));
+        relatar("listagem de " + NOTAS + " notas", nanosAntigo, nanosNovo);
+    }
+
+    @Test
+    void leituraPorIdComJoinEquivaleAoCaminhoAntigoEMedeOsDois() throws Exception {
+        for (var id : ids.subList(0, 50)) {
+            var esperada = buscarPorIdComTresConsultas(id);
+            var obtida = notas.buscarDetalhadaPorId(id);
+            assertTrue(esperada.isPresent() && obtida.isPresent());
+            assertMesmaNota(esperada.get(), obtida.get());
+        }
+
+        long nanosAntigo = mediana(() -> {
+            for (int i = 0; i < LEITURAS_POR_ID; i++) buscarPorIdComTresConsultas(ids.get(i % ids.size()));
+            return null;
+        });
+        long nanosNovo = mediana(() -> {
+            for (int i = 0; i < LEITURAS_POR_ID; i++) notas.buscarDetalhadaPorId(ids.get(i % ids.size()));
+            return null;
+        });
+        relatar(LEITURAS_POR_ID + " leituras por id", nanosAntigo, nanosNovo);
+    }
+
+    // Caminho anterior de NotaService.listarTodas: três consultas e dois HashMaps
+    private List<NotaDTO> listarComMapas() throws SQLException {
+        var lidas = notas.buscarTodos();
+        var etiquetas = new HashMap<Long, Etiqueta>();
+        var status = new HashMap<Long, StatusNota>();
+        try (var conn = DatabaseConfig.getConnection()) {
+            try (var stmt = conn.prepareStatement("SELECT id, nome FROM etiquetas");
+                 var rs = stmt.executeQuery()) {
+                while (rs.next()) etiquetas.put(rs.getLong("id"), etiqueta(rs.getLong("id"), rs.getString("nome")));
+            }
+            try (var stmt = conn.prepareStatement("SELECT id, nome, cor_hex FROM status_nota");
+                 var rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    status.put(rs.getLong("id"), status(rs.getLong("id"), rs.getString("nome"), rs.getString("cor_hex")));
+                }
+            }
+        }
+        var dtos = new ArrayList<NotaDTO>(lidas.size());
+        for (var n : lidas) {
+            dtos.add(new NotaDTO(n, etiquetas.get(n.getEtiquetaId()), status.get(n.getStatusId())));
+        }
+        return dtos;
+    }
+
+    // Caminho anterior de NotaService.buscarPorId: nota, etiqueta e status em consultas separadas
+    private Optional<NotaDTO> buscarPorIdComTresConsultas(Long id) throws SQLException {
+        var notaOpt = notas.buscarPorId(id);
+        if (notaOpt.isEmpty()) return Optional.empty();
+        var nota = notaOpt.get();
+        Etiqueta etiqueta = null;
+        StatusNota status = null;
+        try (var conn = DatabaseConfig.getConnection()) {
+            try (var stmt = conn.prepareStatement("SELECT id, nome FROM etiquetas WHERE id = ?")) {
+                stmt.setLong(1, nota.getEtiquetaId());
+                try (var rs = stmt.executeQuery()) {
+                    if (rs.next()) etiqueta = etiqueta(rs.getLong("id"), rs.getString("nome"));
+                }
+            }
+            try (var stmt = conn.prepareStatement("SELECT id, nome, cor_hex FROM status_nota WHERE id = ?")) {
+                stmt.setLong(1, nota.getStatusId());
+                try (var rs = stmt.executeQuery()) {
+                    if (rs.next()) status = status(rs.getLong("id"), rs.getString("nome"), rs.getString("cor_hex"));
+                }
+            }
+        }
+        return Optional.of(new NotaDTO(nota, etiqueta, status));
+    }
+
+    private static Etiqueta etiqueta(long id, String nome) {
+        var etiqueta = new Etiqueta(nome);
+        etiqueta.setId(id);
+        return etiqueta;
+    }
+
+    private static StatusNota status(long id, String nome, String corHex) {
+        var status = new StatusNota(nome, corHex);
+        status.setId(id);
+        return status;
+    }
+
+    private static Map<Long, NotaDTO> porId(List<NotaDTO> lista) {
+        var mapa = new HashMap<Long, NotaDTO>();
+        for (var nota : lista) mapa.put(nota.getId(), nota);
+        return mapa;
+    }
+
+    private static void assertMesmaNota(NotaDTO esperada, NotaDTO obtida) {
+        assertEquals(esperada.getTitulo(), obtida.getTitulo());
+        assertEquals(esperada.getConteudo(), obtida.getConteudo());
+        assertEquals(esperada.getPrazoFinal(), obtida.getPrazoFinal());
+        assertEquals(esperada.getEtiquetaId(), obtida.getEtiquetaId());
+        assertEquals(esperada.getEtiquetaNome(), obtida.getEtiquetaNome());
+        assertEquals(esperada.getStatusId(), obtida.getStatusId());
+        assertEquals(esperada.getStatusNome(), obtida.getStatusNome());
+        assertEquals(esperada.getStatusCor(), obtida.getStatusCor());
+    }
+
+    // Tempo mediano (ns) depois do aquecimento
+    private static long mediana(Callable<?> operacao) throws Exception {
+        for (int i = 0; i < AQUECIMENTO; i++) operacao.call();
+        var tempos = new long[RODADAS];
+        for (int i = 0; i < RODADAS; i++) {
+            long inicio = System.nanoTime();
+            operacao.call();
+            tempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tempos);
+        return tempos[RODADAS / 2];
+    }
+
+    private static void relatar(String caso, long nanosAntigo, long nanosNovo) {
+        System.out.printf("%s: caminho antigo (três consultas) %.2f ms, JOIN %.2f ms (%.2fx)%n",
+                caso, nanosAntigo / 1e6, nanosNovo / 1e6, nanosAntigo / (double) Math.max(1, nanosNovo));
+    }
+}